@@ -0,0 +1,47 @@
+package com.mycompany.myapp.security;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to verify a password against a stored hash, per BCrypt cost. Use it to pick
+ * {@code jhipster.security.password-hasher.cost} for a given node size: each extra cost step doubles the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCryptCostBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({ "8", "10", "12" })
+    public int cost;
+
+    private BCryptPasswordHasher passwordHasher;
+
+    private String hashedPassword;
+
+    @Setup
+    public void setup() {
+        passwordHasher = new BCryptPasswordHasher(cost);
+        hashedPassword = passwordHasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return passwordHasher.checkPassword(PASSWORD, hashedPassword);
+    }
+}
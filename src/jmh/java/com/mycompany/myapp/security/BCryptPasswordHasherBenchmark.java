@@ -0,0 +1,117 @@
+package com.mycompany.myapp.security;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.security.credential.PasswordCredential;
+import org.wildfly.security.evidence.PasswordGuessEvidence;
+import org.wildfly.security.password.PasswordFactory;
+import org.wildfly.security.password.WildFlyElytronPasswordProvider;
+import org.wildfly.security.password.interfaces.BCryptPassword;
+import org.wildfly.security.password.spec.EncryptablePasswordSpec;
+import org.wildfly.security.password.spec.IteratedSaltedPasswordAlgorithmSpec;
+import org.wildfly.security.password.util.ModularCrypt;
+
+/**
+ * Throughput of {@link BCryptPasswordHasher} against the previous implementation, which looked up a
+ * {@link PasswordFactory} and created a {@link SecureRandom} on every hash. The minimum cost (4) keeps the
+ * BCrypt rounds small enough for the per-call overhead to show; run with {@code -prof gc} to compare
+ * allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class BCryptPasswordHasherBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({ "4", "10" })
+    public int cost;
+
+    private BCryptPasswordHasher passwordHasher;
+
+    private LegacyBCryptPasswordHasher legacyPasswordHasher;
+
+    private String hashedPassword;
+
+    @Setup
+    public void setup() {
+        passwordHasher = new BCryptPasswordHasher(cost);
+        legacyPasswordHasher = new LegacyBCryptPasswordHasher(cost);
+        hashedPassword = passwordHasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public String hash() {
+        return passwordHasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public String hashLegacy() {
+        return legacyPasswordHasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean checkPassword() {
+        return passwordHasher.checkPassword(PASSWORD, hashedPassword);
+    }
+
+    @Benchmark
+    public boolean checkPasswordLegacy() {
+        return legacyPasswordHasher.checkPassword(PASSWORD, hashedPassword);
+    }
+
+    /**
+     * The hasher as it was before factories and random sources were reused.
+     */
+    static class LegacyBCryptPasswordHasher {
+
+        private static final WildFlyElytronPasswordProvider provider = new WildFlyElytronPasswordProvider();
+
+        private final int iterationCount;
+
+        LegacyBCryptPasswordHasher(int iterationCount) {
+            this.iterationCount = iterationCount;
+        }
+
+        boolean checkPassword(String plaintextPassword, String hashedPassword) {
+            try {
+                PasswordGuessEvidence evidence = new PasswordGuessEvidence(plaintextPassword.toCharArray());
+                PasswordCredential credential = new PasswordCredential(ModularCrypt.decode(hashedPassword));
+                return credential.verify(evidence);
+            } catch (InvalidKeySpecException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        String hash(String password) {
+            byte[] salt = new byte[BCryptPassword.BCRYPT_SALT_SIZE];
+            new SecureRandom().nextBytes(salt);
+            try {
+                PasswordFactory passwordFactory = PasswordFactory.getInstance(BCryptPassword.ALGORITHM_BCRYPT, provider);
+                IteratedSaltedPasswordAlgorithmSpec iteratedAlgorithmSpec = new IteratedSaltedPasswordAlgorithmSpec(iterationCount, salt);
+                EncryptablePasswordSpec encryptableSpec = new EncryptablePasswordSpec(password.toCharArray(), iteratedAlgorithmSpec);
+                return ModularCrypt.encodeAsString(passwordFactory.generatePassword(encryptableSpec));
+            } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import io.quarkus.security.runtime.QuarkusPrincipal;
+import io.quarkus.security.runtime.QuarkusSecurityIdentity;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.TimeUnit;
+import org.jose4j.jwt.JwtClaims;
+import org.jose4j.jwt.consumer.JwtConsumer;
+import org.jose4j.jwt.consumer.JwtConsumerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Token issuance and verification throughput per signature algorithm, to choose
+ * {@code jhipster.security.authentication.jwt.algorithm}. Token size is reported once per trial on stdout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenSigningBenchmark {
+
+    private static final String ISSUER = "https://www.jhipster.tech";
+
+    @Param({ "RS256", "ES256", "EdDSA" })
+    public String algorithm;
+
+    private TokenProvider tokenProvider;
+
+    private QuarkusSecurityIdentity identity;
+
+    private JwtConsumer jwtConsumer;
+
+    private String token;
+
+    @Setup
+    public void setup() throws Exception {
+        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.fromJwsName(algorithm);
+        KeyPairGenerator generator =
+            switch (signatureAlgorithm) {
+                case ES256 -> {
+                    KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+                    ec.initialize(new ECGenParameterSpec("secp256r1"));
+                    yield ec;
+                }
+                case EDDSA -> KeyPairGenerator.getInstance("Ed25519");
+                default -> {
+                    KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+                    rsa.initialize(2048);
+                    yield rsa;
+                }
+            };
+        KeyPair keyPair = generator.generateKeyPair();
+        tokenProvider = new TokenProvider(keyPair.getPrivate(), signatureAlgorithm, ISSUER, 86_400_000L, 86_400_000L, null);
+        identity = QuarkusSecurityIdentity.builder()
+            .setPrincipal(new QuarkusPrincipal("user"))
+            .addRole(AuthoritiesConstants.USER)
+            .build();
+        jwtConsumer = new JwtConsumerBuilder().setVerificationKey(keyPair.getPublic()).setExpectedIssuer(ISSUER).build();
+        token = tokenProvider.createToken(identity, false);
+        System.out.println(algorithm + " token size: " + token.length() + " characters");
+    }
+
+    @Benchmark
+    public String issue() {
+        return tokenProvider.createToken(identity, false);
+    }
+
+    @Benchmark
+    public JwtClaims verify() throws Exception {
+        return jwtConsumer.processToClaims(token);
+    }
+}
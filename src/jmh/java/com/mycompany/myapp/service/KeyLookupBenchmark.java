@@ -0,0 +1,175 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.security.RandomUtil;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of the user lookups of the activation and password reset links, against a PostgreSQL table of
+ * {@code userCount} users, one in {@code pendingEvery} with a pending activation key and reset key.
+ * <p>
+ * Compares the former lookups by clear key on unindexed columns, which scan the table, with the lookups by key
+ * hash served by the partial indexes, the reset date being checked in the same query. The setup prints the
+ * plans of both and fails if a hashed lookup scans the table. Start the database with
+ * {@code docker compose -f src/main/docker/postgresql.yml up -d}; the tables are created in a separate
+ * {@code key_lookup_benchmark} schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class KeyLookupBenchmark {
+
+    private static final String SELECT = "SELECT id, login, reset_date FROM jhi_user WHERE ";
+
+    @Param({ "1000000" })
+    public int userCount;
+
+    @Param({ "100" })
+    public int pendingEvery;
+
+    @Param({ "jdbc:postgresql://localhost:5432/microquark" })
+    public String jdbcUrl;
+
+    @Param({ "microquark" })
+    public String username;
+
+    private Connection connection;
+
+    private PreparedStatement legacyActivationLookup;
+
+    private PreparedStatement legacyResetLookup;
+
+    private PreparedStatement hashedActivationLookup;
+
+    private PreparedStatement hashedResetLookup;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, username, "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS key_lookup_benchmark CASCADE");
+            statement.execute("CREATE SCHEMA key_lookup_benchmark");
+            statement.execute("SET search_path TO key_lookup_benchmark");
+            statement.execute(
+                "CREATE TABLE jhi_user (id bigint PRIMARY KEY, login varchar(50) NOT NULL, " +
+                "activation_key varchar(20), reset_key varchar(20), " +
+                "activation_key_hash varchar(64), reset_key_hash varchar(64), reset_date timestamp)"
+            );
+            statement.execute(
+                "INSERT INTO jhi_user (id, login, activation_key, reset_key, reset_date) SELECT i, 'user' || i, " +
+                "CASE WHEN i % " +
+                pendingEvery +
+                " = 0 THEN 'a' || i END, CASE WHEN i % " +
+                pendingEvery +
+                " = 0 THEN 'r' || i END, CASE WHEN i % " +
+                pendingEvery +
+                " = 0 THEN now() END FROM generate_series(1, " +
+                userCount +
+                ") AS i"
+            );
+            statement.execute(
+                "UPDATE jhi_user SET activation_key_hash = encode(sha256(convert_to(activation_key, 'UTF8')), 'hex'), " +
+                "reset_key_hash = encode(sha256(convert_to(reset_key, 'UTF8')), 'hex') WHERE activation_key IS NOT NULL"
+            );
+            statement.execute(
+                "CREATE INDEX idx_user_activation_key ON jhi_user (activation_key_hash) WHERE activation_key_hash IS NOT NULL"
+            );
+            statement.execute("CREATE INDEX idx_user_reset_key ON jhi_user (reset_key_hash) WHERE reset_key_hash IS NOT NULL");
+            statement.execute("ANALYZE");
+        }
+        legacyActivationLookup = connection.prepareStatement(SELECT + "activation_key = ?");
+        legacyResetLookup = connection.prepareStatement(SELECT + "reset_key = ?");
+        hashedActivationLookup = connection.prepareStatement(SELECT + "activation_key_hash = ?");
+        hashedResetLookup = connection.prepareStatement(SELECT + "reset_key_hash = ? AND reset_date > ?");
+
+        String activationKey = RandomUtil.hashKey("a" + pendingEvery);
+        System.out.println(plan("activation_key = 'a" + pendingEvery + "'"));
+        String hashedPlan = plan("activation_key_hash = '" + activationKey + "'");
+        System.out.println(hashedPlan);
+        if (hashedPlan.contains("Seq Scan")) {
+            throw new IllegalStateException("The hashed activation key lookup scans the table");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA key_lookup_benchmark CASCADE");
+        }
+        connection.close();
+    }
+
+    private String plan(String where) throws SQLException {
+        StringBuilder plan = new StringBuilder("EXPLAIN ").append(where).append('\n');
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("EXPLAIN " + SELECT + where)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private int randomPendingUser() {
+        return (ThreadLocalRandom.current().nextInt(userCount / pendingEvery) + 1) * pendingEvery;
+    }
+
+    @Benchmark
+    public int legacyActivationLookup() throws SQLException {
+        legacyActivationLookup.setString(1, "a" + randomPendingUser());
+        return count(legacyActivationLookup);
+    }
+
+    @Benchmark
+    public int hashedActivationLookup() throws SQLException {
+        hashedActivationLookup.setString(1, RandomUtil.hashKey("a" + randomPendingUser()));
+        return count(hashedActivationLookup);
+    }
+
+    @Benchmark
+    public int legacyResetLookup() throws SQLException {
+        legacyResetLookup.setString(1, "r" + randomPendingUser());
+        return count(legacyResetLookup);
+    }
+
+    @Benchmark
+    public int hashedResetLookup() throws SQLException {
+        hashedResetLookup.setString(1, RandomUtil.hashKey("r" + randomPendingUser()));
+        hashedResetLookup.setTimestamp(2, Timestamp.from(Instant.now().minus(Duration.ofDays(1))));
+        return count(hashedResetLookup);
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,136 @@
+package com.mycompany.myapp.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of the user lookup done on every login, against a PostgreSQL table of {@code userCount} users.
+ * <p>
+ * Compares the former email lookup (filtering on {@code lower(login)}, which scans the table) with the
+ * login-or-email query served by the login unique index and the {@code lower(email)} index, and the email
+ * check done with {@link String#matches} with the precompiled pattern. Start the database with
+ * {@code docker compose -f src/main/docker/postgresql.yml up -d}; the tables are created in a separate
+ * {@code login_lookup_benchmark} schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoginLookupBenchmark {
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(AuthenticationService.emailValidator);
+
+    private static final String SELECT =
+        "SELECT u.id, u.login, u.password_hash, u.activated, ua.authority_name FROM jhi_user u " +
+        "LEFT JOIN jhi_user_authority ua ON ua.user_id = u.id WHERE ";
+
+    @Param({ "1000000" })
+    public int userCount;
+
+    @Param({ "jdbc:postgresql://localhost:5432/microquark" })
+    public String jdbcUrl;
+
+    @Param({ "microquark" })
+    public String username;
+
+    private Connection connection;
+
+    private PreparedStatement legacyEmailLookup;
+
+    private PreparedStatement loginOrEmailLookup;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, username, "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS login_lookup_benchmark CASCADE");
+            statement.execute("CREATE SCHEMA login_lookup_benchmark");
+            statement.execute("SET search_path TO login_lookup_benchmark");
+            statement.execute(
+                "CREATE TABLE jhi_user (id bigint PRIMARY KEY, login varchar(50) NOT NULL CONSTRAINT ux_user_login UNIQUE, " +
+                "password_hash varchar(60) NOT NULL, email varchar(191) CONSTRAINT ux_user_email UNIQUE, activated boolean NOT NULL)"
+            );
+            statement.execute("CREATE TABLE jhi_user_authority (user_id bigint NOT NULL, authority_name varchar(50) NOT NULL)");
+            statement.execute(
+                "INSERT INTO jhi_user SELECT i, 'user' || i, '$2a$10$gSAhZrxMllrbgj/kkK9UceBPpChGWJA7SYIb1Mqo.n5aNLq1/oRrC', " +
+                "'User' || i || '@Example.com', true FROM generate_series(1, " +
+                userCount +
+                ") AS i"
+            );
+            statement.execute("INSERT INTO jhi_user_authority SELECT id, 'ROLE_USER' FROM jhi_user");
+            statement.execute("ALTER TABLE jhi_user_authority ADD PRIMARY KEY (user_id, authority_name)");
+            statement.execute("CREATE INDEX idx_user_lower_email ON jhi_user (lower(email))");
+            statement.execute("ANALYZE");
+        }
+        legacyEmailLookup = connection.prepareStatement(SELECT + "lower(u.login) = lower(?)");
+        loginOrEmailLookup = connection.prepareStatement(SELECT + "u.login = ? OR lower(u.email) = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA login_lookup_benchmark CASCADE");
+        }
+        connection.close();
+    }
+
+    private String randomEmail() {
+        return "user" + (ThreadLocalRandom.current().nextInt(userCount) + 1) + "@example.com";
+    }
+
+    @Benchmark
+    public boolean emailCheckWithStringMatches() {
+        return randomEmail().matches(AuthenticationService.emailValidator);
+    }
+
+    @Benchmark
+    public boolean emailCheckWithPrecompiledPattern() {
+        return EMAIL_PATTERN.matcher(randomEmail()).matches();
+    }
+
+    @Benchmark
+    public int legacyEmailLookup() throws SQLException {
+        legacyEmailLookup.setString(1, randomEmail());
+        return count(legacyEmailLookup);
+    }
+
+    @Benchmark
+    public int loginOrEmailLookup() throws SQLException {
+        String email = randomEmail();
+        loginOrEmailLookup.setString(1, email);
+        loginOrEmailLookup.setString(2, email);
+        return count(loginOrEmailLookup);
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
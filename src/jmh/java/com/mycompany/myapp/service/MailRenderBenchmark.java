@@ -0,0 +1,99 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.OutboxMail;
+import com.mycompany.myapp.service.dto.UserMailDTO;
+import io.quarkus.mailer.Mail;
+import io.quarkus.qute.Engine;
+import io.quarkus.qute.ReflectionValueResolver;
+import io.quarkus.qute.Template;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mails rendered per second by {@link MailService}, for a batch of {@value #BATCH_SIZE} mails of every type, to
+ * users of a few languages.
+ * <p>
+ * Compares rendering the batch in one pass, rendering it one mail at a time as the single-mail methods do, and
+ * rendering it with the texts read from the {@code i18n} bundles for each mail. The templates are parsed once by
+ * a standalone Qute engine, as Quarkus does at build time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailRenderBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] LANGUAGES = { "en", "fr", "de", null };
+
+    private MailService mailService;
+
+    private List<UserMailDTO> mails;
+
+    @Setup
+    public void setup() throws IOException {
+        Engine engine = Engine.builder().addDefaults().addValueResolver(new ReflectionValueResolver()).build();
+        mailService = new MailService(
+            "http://127.0.0.1:8080",
+            null,
+            parse(engine, "activationEmail"),
+            parse(engine, "creationEmail"),
+            parse(engine, "passwordResetEmail")
+        );
+        OutboxMail.Type[] types = OutboxMail.Type.values();
+        mails = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            mails.add(new UserMailDTO(types[i % types.length], "user" + i, "user" + i + "@example.com", LANGUAGES[i % LANGUAGES.length], "key" + i));
+        }
+    }
+
+    private static Template parse(Engine engine, String name) throws IOException {
+        try (InputStream template = MailRenderBenchmark.class.getResourceAsStream("/templates/mail/" + name + ".html")) {
+            return engine.parse(new String(template.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Mail> renderBatch() {
+        return mailService.render(mails);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int renderOneAtATime() {
+        int length = 0;
+        for (UserMailDTO mail : mails) {
+            length += mailService.render(List.of(mail)).get(0).getHtml().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int renderWithTextsReadPerMail() {
+        int length = 0;
+        for (UserMailDTO mail : mails) {
+            length += mailService.render(mail, MailTexts.load(mail.langKey()).get(mail.type())).getHtml().length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,166 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.hibernate.JHipsterCompatibleImplicitNamingStrategy;
+import com.mycompany.myapp.config.hibernate.JHipsterCompatiblePhysicalNamingStrategy;
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.User;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to create 1000 users with one authority each, persisted and flushed through a Hibernate session in one
+ * transaction, against PostgreSQL.
+ * <p>
+ * The session factory maps the {@link User} and {@link Authority} entities with the naming strategies of the
+ * application, and is configured from the parameters: {@code batchSize} is the JDBC batch size, {@code 1}
+ * disabling batching, with inserts ordered by table as in the application; {@code optimizer} is the optimizer
+ * of {@code sequence_generator}, whose increment is 50; {@code reWriteBatchedInserts} makes the driver send
+ * each batch as a single multi-row insert. The application runs with a batch size of 50, {@code pooled-lo},
+ * and the driver rewrite in production. The second-level cache is disabled, as it does not take part in
+ * inserts.
+ * <p>
+ * Hibernate statistics are enabled: the {@code statements} and {@code users} counters report the statements
+ * prepared and the users created over an iteration, and {@code statementsPer1000Users} their ratio, the
+ * statements sent for 1000 user creations. Compare {@code batchSize=1}, the application before batching, to
+ * {@code batchSize=50}.
+ * <p>
+ * Start the database with {@code docker compose -f src/main/docker/postgresql.yml up -d}; the tables are
+ * created by Hibernate in a separate {@code user_insert_benchmark} schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserInsertBenchmark {
+
+    private static final int USERS = 1000;
+
+    private static final String SCHEMA = "user_insert_benchmark";
+
+    @Param({ "1", "50" })
+    public int batchSize;
+
+    @Param({ "pooled", "pooled-lo" })
+    public String optimizer;
+
+    @Param({ "false", "true" })
+    public boolean reWriteBatchedInserts;
+
+    @Param({ "jdbc:postgresql://localhost:5432/microquark" })
+    public String jdbcUrl;
+
+    @Param({ "microquark" })
+    public String username;
+
+    private SessionFactory sessionFactory;
+
+    private long created;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long statements;
+
+        public long users;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+            users = 0;
+        }
+
+        public double statementsPer1000Users() {
+            return users == 0 ? 0 : statements * 1000.0 / users;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, ""); Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+        }
+        Configuration configuration = new Configuration()
+            .addAnnotatedClass(Authority.class)
+            .addAnnotatedClass(User.class)
+            .setImplicitNamingStrategy(new JHipsterCompatibleImplicitNamingStrategy())
+            .setPhysicalNamingStrategy(new JHipsterCompatiblePhysicalNamingStrategy());
+        configuration.setProperty(
+            AvailableSettings.JAKARTA_JDBC_URL,
+            jdbcUrl + "?currentSchema=" + SCHEMA + "&reWriteBatchedInserts=" + reWriteBatchedInserts
+        );
+        configuration.setProperty(AvailableSettings.JAKARTA_JDBC_USER, username);
+        configuration.setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "");
+        configuration.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, Integer.toString(batchSize));
+        configuration.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        configuration.setProperty(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, optimizer);
+        configuration.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+        configuration.setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none");
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, "create");
+        configuration.setProperty(AvailableSettings.GENERATE_STATISTICS, "true");
+        sessionFactory = configuration.buildSessionFactory();
+        sessionFactory.inTransaction(session -> session.persist(new Authority("ROLE_USER")));
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        sessionFactory.inTransaction(session -> session.createNativeMutationQuery("TRUNCATE jhi_user_authority, jhi_user").executeUpdate());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        sessionFactory.close();
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, ""); Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Benchmark
+    public void persistAndFlush(Counters counters) {
+        Statistics statistics = sessionFactory.getStatistics();
+        long prepared = statistics.getPrepareStatementCount();
+        sessionFactory.inTransaction(session -> {
+            Authority authority = session.getReference(Authority.class, "ROLE_USER");
+            for (int i = 0; i < USERS; i++) {
+                long n = created++;
+                User user = new User();
+                user.login = "user" + n;
+                user.email = "user" + n + "@example.com";
+                // a constant hash: the benchmark measures the database round trips, not BCrypt
+                user.password = "$2a$10$gSAhZrxMllrbgj/kkK9UceBPpChGWJA7SYIb1Mqo.n5aNLq1/oRrC";
+                user.activated = true;
+                user.langKey = "en";
+                user.createdBy = "system";
+                user.authorities.add(authority);
+                session.persist(user);
+            }
+            session.flush();
+        });
+        counters.statements += statistics.getPrepareStatementCount() - prepared;
+        counters.users += USERS;
+    }
+}
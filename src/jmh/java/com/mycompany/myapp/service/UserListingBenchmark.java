@@ -0,0 +1,170 @@
+package com.mycompany.myapp.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Latency of one page of the admin user list with a cold second-level cache, against a PostgreSQL table
+ * of {@code userCount} users.
+ * <p>
+ * {@code batchedLazyAuthorities} replays the statements of the former path: the page, then one statement
+ * per 20 users for the {@code @BatchSize(20)} authorities collections, so {@code 1 + pageSize / 20}
+ * statements. {@code authoritiesOfThePage} replays the current path: the page, then the authority names
+ * of the whole page, so 2 statements whatever the page size. Start the database with
+ * {@code docker compose -f src/main/docker/postgresql.yml up -d}; the tables are created in a separate
+ * {@code user_listing_benchmark} schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserListingBenchmark {
+
+    private static final int BATCH_SIZE = 20;
+
+    @Param({ "100000" })
+    public int userCount;
+
+    @Param({ "20", "100" })
+    public int pageSize;
+
+    @Param({ "jdbc:postgresql://localhost:5432/microquark" })
+    public String jdbcUrl;
+
+    @Param({ "microquark" })
+    public String username;
+
+    private Connection connection;
+
+    private PreparedStatement pageQuery;
+
+    private PreparedStatement batchAuthoritiesQuery;
+
+    private PreparedStatement pageAuthoritiesQuery;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, username, "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS user_listing_benchmark CASCADE");
+            statement.execute("CREATE SCHEMA user_listing_benchmark");
+            statement.execute("SET search_path TO user_listing_benchmark");
+            statement.execute(
+                "CREATE TABLE jhi_user (id bigint PRIMARY KEY, login varchar(50) NOT NULL UNIQUE, first_name varchar(50), " +
+                "last_name varchar(50), email varchar(191) UNIQUE, activated boolean NOT NULL, lang_key varchar(10))"
+            );
+            statement.execute(
+                "CREATE TABLE jhi_user_authority (user_id bigint NOT NULL, authority_name varchar(50) NOT NULL, " +
+                "PRIMARY KEY (user_id, authority_name))"
+            );
+            statement.execute(
+                "INSERT INTO jhi_user SELECT i, 'user' || i, 'First' || i, 'Last' || i, 'user' || i || '@example.com', true, 'en' " +
+                "FROM generate_series(1, " +
+                userCount +
+                ") AS i"
+            );
+            statement.execute("INSERT INTO jhi_user_authority SELECT id, 'ROLE_USER' FROM jhi_user");
+            statement.execute("INSERT INTO jhi_user_authority SELECT id, 'ROLE_ADMIN' FROM jhi_user WHERE id % 10 = 0");
+            statement.execute("ANALYZE");
+        }
+        pageQuery = connection.prepareStatement(
+            "SELECT id, login, first_name, last_name, email, activated, lang_key FROM jhi_user WHERE id > ? ORDER BY id LIMIT ?"
+        );
+        batchAuthoritiesQuery = connection.prepareStatement(authoritiesQuery(BATCH_SIZE));
+        pageAuthoritiesQuery = connection.prepareStatement(authoritiesQuery(pageSize));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA user_listing_benchmark CASCADE");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void batchedLazyAuthorities(Blackhole blackhole) throws SQLException {
+        List<Long> ids = page();
+        Map<Long, Set<String>> authorities = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            bindIds(batchAuthoritiesQuery, ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())), BATCH_SIZE);
+            readAuthorities(batchAuthoritiesQuery, authorities);
+        }
+        blackhole.consume(authorities);
+    }
+
+    @Benchmark
+    public void authoritiesOfThePage(Blackhole blackhole) throws SQLException {
+        List<Long> ids = page();
+        Map<Long, Set<String>> authorities = new HashMap<>();
+        bindIds(pageAuthoritiesQuery, ids, pageSize);
+        readAuthorities(pageAuthoritiesQuery, authorities);
+        blackhole.consume(authorities);
+    }
+
+    private List<Long> page() throws SQLException {
+        pageQuery.setLong(1, ThreadLocalRandom.current().nextInt(Math.max(userCount - pageSize, 1)));
+        pageQuery.setInt(2, pageSize);
+        List<Long> ids = new ArrayList<>(pageSize);
+        try (ResultSet resultSet = pageQuery.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private static String authoritiesQuery(int parameterCount) {
+        return (
+            "SELECT user_id, authority_name FROM jhi_user_authority WHERE user_id IN (" +
+            String.join(",", Collections.nCopies(parameterCount, "?")) +
+            ")"
+        );
+    }
+
+    /**
+     * Bind the ids, repeating the last one to fill the remaining parameters like Hibernate pads batches.
+     */
+    private static void bindIds(PreparedStatement statement, List<Long> ids, int parameterCount) throws SQLException {
+        for (int i = 0; i < parameterCount; i++) {
+            statement.setLong(i + 1, ids.get(Math.min(i, ids.size() - 1)));
+        }
+    }
+
+    private static void readAuthorities(PreparedStatement statement, Map<Long, Set<String>> authorities) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                authorities.computeIfAbsent(resultSet.getLong(1), id -> new HashSet<>()).add(resultSet.getString(2));
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.mycompany.myapp.web.rest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@code GET /api/account} against a running application, which resolves the user by login on
+ * every call.
+ * <p>
+ * Run it once against the application started with the default configuration, where the login is resolved from
+ * the natural-id cache region and the user and its authorities from the entity and collection regions, then once
+ * against the application started with {@code -Dquarkus.hibernate-orm.second-level-caching-enabled=false},
+ * where each call queries the database. Start the application with {@code ./mvnw -Pprod} against the PostgreSQL
+ * database of {@code src/main/docker/postgresql.yml}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class AccountResourceBenchmark {
+
+    private static final Pattern ID_TOKEN = Pattern.compile("\"id_token\"\\s*:\\s*\"([^\"]+)\"");
+
+    @Param({ "http://localhost:8080" })
+    public String baseUrl;
+
+    @Param({ "admin" })
+    public String username;
+
+    @Param({ "admin" })
+    public String password;
+
+    private HttpClient client;
+
+    private HttpRequest getAccount;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<String> authentication = client.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + "/api/authenticate"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build(),
+            HttpResponse.BodyHandlers.ofString()
+        );
+        Matcher token = ID_TOKEN.matcher(authentication.body());
+        if (authentication.statusCode() != 200 || !token.find()) {
+            throw new IllegalStateException("Could not authenticate as " + username + ": " + authentication.statusCode());
+        }
+        getAccount = HttpRequest.newBuilder(URI.create(baseUrl + "/api/account"))
+            .header("Authorization", "Bearer " + token.group(1))
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+    }
+
+    @Benchmark
+    public String getAccount() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(getAccount, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /api/account failed: " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -1,6 +1,10 @@
 package com.mycompany.myapp.config;
 
 import io.smallrye.config.ConfigMapping;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
 
 @ConfigMapping(prefix = "jhipster")
 public interface JHipsterProperties {
@@ -24,20 +28,137 @@ public interface JHipsterProperties {
 
             interface Jwt {
                 String issuer();
+                String algorithm();
                 long tokenValidityInSeconds();
                 long tokenValidityInSecondsForRememberMe();
                 PrivateKey privateKey();
 
                 interface PrivateKey {
                     String location();
+                    Duration reloadInterval();
                 }
+
+                Optional<List<String>> verificationKeys();
+
+                TokenCache tokenCache();
+
+                interface TokenCache {
+                    boolean enabled();
+                    Duration timeToLive();
+                    long maximumSize();
+                }
+
+                VerifiedTokenCache verifiedTokenCache();
+
+                interface VerifiedTokenCache {
+                    boolean enabled();
+                    long maximumSize();
+                }
+            }
+
+            CredentialCache credentialCache();
+
+            interface CredentialCache {
+                boolean enabled();
+                Duration timeToLive();
+                long maximumSize();
+            }
+
+            LoginFilter loginFilter();
+
+            interface LoginFilter {
+                boolean enabled();
+                double falsePositiveProbability();
+                // read by the @Scheduled rebuild, which also accepts "off"
+                String rebuildInterval();
             }
         }
+
+        PasswordHasher passwordHasher();
+
+        interface PasswordHasher {
+            int cost();
+            OptionalInt poolSize();
+            int queueCapacity();
+        }
+
+        RateLimit rateLimit();
+
+        interface RateLimit {
+            boolean enabled();
+            long maximumSize();
+            EndpointLimits authenticate();
+            EndpointLimits register();
+            EndpointLimits resetPassword();
+
+            interface EndpointLimits {
+                Rate ip();
+                Rate login();
+            }
+
+            interface Rate {
+                int capacity();
+                Duration period();
+            }
+        }
+    }
+
+    Account account();
+
+    interface Account {
+        Cache cache();
+
+        interface Cache {
+            boolean enabled();
+            Duration timeToLive();
+            long maximumSize();
+        }
+    }
+
+    Pagination pagination();
+
+    interface Pagination {
+        int defaultPageSize();
+        int maxPageSize();
+        Duration countCacheTimeToLive();
+    }
+
+    Export export();
+
+    interface Export {
+        int fetchSize();
+    }
+
+    UserImport userImport();
+
+    interface UserImport {
+        int batchSize();
+    }
+
+    UserPurge userPurge();
+
+    interface UserPurge {
+        // read by the @Scheduled purge, which also accepts "off"
+        String cron();
+        Duration retention();
+        int batchSize();
     }
 
     Mail mail();
 
     interface Mail {
         String baseUrl();
+
+        Outbox outbox();
+
+        interface Outbox {
+            // read by the @Scheduled dispatch, which also accepts "off"
+            String pollInterval();
+            int batchSize();
+            int maxAttempts();
+            Duration initialBackoff();
+            Duration maxBackoff();
+            Duration lease();
+        }
     }
 }
@@ -0,0 +1,139 @@
+package com.mycompany.myapp.domain;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+
+/**
+ * An email waiting in the outbox. It is written in the transaction of the user change that calls for it,
+ * and sent, then deleted, by the outbox dispatcher.
+ * <p>
+ * The recipient, login, language and key are copied from the user when the mail is queued, so that the
+ * mail is sent as of the change, even if the user changes or is deleted meanwhile.
+ * <p>
+ * The key is the clear activation or reset key, which users only store hashed: a pending mail holds a live
+ * key. It is deleted with the mail once sent, and cleared when the mail is given up on.
+ */
+@Entity
+@Table(name = "jhi_mail_outbox")
+public class OutboxMail extends PanacheEntityBase implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        ACTIVATION,
+        CREATION,
+        PASSWORD_RESET,
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "sequence_generator", allocationSize = 50)
+    public Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    public Type type;
+
+    @NotNull
+    @Size(max = 254)
+    @Column(length = 254, nullable = false)
+    public String recipient;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(length = 50, nullable = false)
+    public String login;
+
+    @Size(max = 10)
+    @Column(name = "lang_key", length = 10)
+    public String langKey;
+
+    /** The clear activation key, or reset key, until the mail is sent or given up on. */
+    @Size(max = 20)
+    @Column(name = "mail_key", length = 20)
+    public String mailKey;
+
+    @Column(nullable = false)
+    public int attempts = 0;
+
+    /** When the mail is due, or {@code null} once it was given up on. */
+    @Column(name = "next_attempt_date")
+    public Instant nextAttemptDate = Instant.now();
+
+    @Size(max = 512)
+    @Column(name = "last_error", length = 512)
+    public String lastError;
+
+    @Column(name = "created_date", nullable = false)
+    public Instant createdDate = Instant.now();
+
+    /**
+     * Queue a mail to a user, in the current transaction.
+     *
+     * @param type the type of mail.
+     * @param user the user to send it to.
+     * @param key  the activation key, or the reset key, the mail links to: the user only has its hash.
+     */
+    public static void queue(Type type, User user, String key) {
+        OutboxMail mail = new OutboxMail();
+        mail.type = type;
+        mail.recipient = user.email;
+        mail.login = user.login;
+        mail.langKey = user.langKey;
+        mail.mailKey = key;
+        mail.persist();
+    }
+
+    /**
+     * Find, and lock, the mails due at a given date. Mails already locked by another instance are skipped.
+     *
+     * @param dateTime the date.
+     * @param limit    the maximum number of mails.
+     * @return the due mails, the oldest first.
+     */
+    public static List<OutboxMail> findAllByNextAttemptDateBefore(Instant dateTime, int limit) {
+        return find("nextAttemptDate <= ?1 order by nextAttemptDate, id", dateTime)
+            .page(0, limit)
+            .withLock(LockModeType.PESSIMISTIC_WRITE)
+            .withHint(AvailableSettings.JAKARTA_LOCK_TIMEOUT, LockOptions.SKIP_LOCKED)
+            .list();
+    }
+
+    public static long deleteByIdIn(Collection<Long> ids) {
+        return delete("id in ?1", ids);
+    }
+
+    public static long countByNextAttemptDateNotNull() {
+        return count("nextAttemptDate is not null");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OutboxMail)) {
+            return false;
+        }
+        return id != null && id.equals(((OutboxMail) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxMail{" + "id=" + id + ", type=" + type + ", login='" + login + '\'' + ", attempts=" + attempts + "}";
+    }
+}
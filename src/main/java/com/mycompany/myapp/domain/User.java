@@ -2,7 +2,9 @@ package com.mycompany.myapp.domain;
 
 import com.mycompany.myapp.config.Constants;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.panache.common.Page;
+import io.quarkus.panache.common.Sort;
 import jakarta.json.bind.annotation.JsonbTransient;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -11,32 +13,47 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
 import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * A user.
+ * <p>
+ * The login is the natural id of the user: lookups by login resolve the id from the natural-id cache region, then
+ * the user from the entity region, without a query once both are warm. It is mutable, as an admin may rename a user.
  */
 @Entity
 @Table(name = "jhi_user")
 @Cacheable
+@NaturalIdCache
 public class User extends PanacheEntityBase implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "sequence_generator", allocationSize = 50)
     public Long id;
 
     @NotNull
     @Pattern(regexp = Constants.LOGIN_REGEX)
     @Size(min = 1, max = 50)
+    @NaturalId(mutable = true)
     @Column(length = 50, unique = true, nullable = false)
     public String login;
 
@@ -71,13 +88,15 @@ public class User extends PanacheEntityBase implements Serializable {
     @Column(name = "image_url", length = 256)
     public String imageUrl;
 
-    @Size(max = 20)
-    @Column(name = "activation_key", length = 20)
+    /** The hash of the activation key sent to the user, see {@link com.mycompany.myapp.security.RandomUtil#hashKey}. */
+    @Size(max = 64)
+    @Column(name = "activation_key", length = 64)
     @JsonbTransient
     public String activationKey;
 
-    @Size(max = 20)
-    @Column(name = "reset_key", length = 20)
+    /** The hash of the reset key sent to the user, see {@link com.mycompany.myapp.security.RandomUtil#hashKey}. */
+    @Size(max = 64)
+    @Column(name = "reset_key", length = 64)
     @JsonbTransient
     public String resetKey;
 
@@ -164,16 +183,55 @@ public class User extends PanacheEntityBase implements Serializable {
         );
     }
 
+    /**
+     * Find a user by the hash of its activation key, served by the partial {@code activation_key} index.
+     *
+     * @param activationKey the hash of the activation key.
+     * @return the user.
+     */
     public static Optional<User> findOneByActivationKey(String activationKey) {
         return find("activationKey", activationKey).firstResultOptional();
     }
 
-    public static List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime) {
-        return list("activated = false and activationKey not null and createdDate <= ?1", dateTime);
+    /**
+     * Find the ids of a bounded batch of users that were never activated, served by the
+     * {@code (activated, created_date)} index.
+     *
+     * @param dateTime the creation date before which users are returned.
+     * @param limit    the maximum number of ids.
+     * @return the ids.
+     */
+    public static List<Long> findIdsByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime, int limit) {
+        return getEntityManager()
+            .createQuery(
+                "SELECT u.id FROM User u WHERE u.activated = false AND u.activationKey IS NOT NULL AND u.createdDate <= ?1",
+                Long.class
+            )
+            .setParameter(1, dateTime)
+            .setMaxResults(limit)
+            .getResultList();
     }
 
-    public static Optional<User> findOneByResetKey(String resetKey) {
-        return find("resetKey", resetKey).firstResultOptional();
+    /**
+     * Delete the users of the given ids that are still not activated, with their authorities, in bulk.
+     *
+     * @param ids the ids of the users.
+     * @return the number of deleted users.
+     */
+    public static long deleteByIdInAndActivatedIsFalse(Collection<Long> ids) {
+        return delete("id in ?1 and activated = false", ids);
+    }
+
+    /**
+     * Find a user by the hash of its reset key, if the key was issued after a given date, served by the partial
+     * {@code reset_key} index.
+     *
+     * @param resetKey the hash of the reset key.
+     * @param dateTime the date after which the key must have been issued.
+     * @return the user.
+     */
+    public static Optional<User> findOneByResetKeyAndResetDateAfter(String resetKey, Instant dateTime) {
+        return find("resetKey = ?1 and resetDate > ?2", resetKey, dateTime).firstResultOptional();
     }
 
     public static Optional<User> findOneByEmailIgnoreCase(String email) {
@@ -181,22 +239,173 @@ public class User extends PanacheEntityBase implements Serializable {
     }
 
     public static Optional<User> findOneByLogin(String login) {
-        return find("login", login).firstResultOptional();
+        return getEntityManager().unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(login);
     }
 
     public static Optional<User> findOneWithAuthoritiesById(Long id) {
         return find("FROM User u LEFT JOIN FETCH u.authorities WHERE u.id = ?1", id).firstResultOptional();
     }
 
+    /**
+     * Find a user by login, through the natural-id and entity cache regions, with its authorities from the
+     * collection cache region.
+     *
+     * @param login the lowercase login.
+     * @return the user, with its authorities initialized.
+     */
     public static Optional<User> findOneWithAuthoritiesByLogin(String login) {
-        return find("FROM User u LEFT JOIN FETCH u.authorities WHERE u.login = ?1", login).firstResultOptional();
+        Optional<User> user = findOneByLogin(login);
+        user.ifPresent(it -> Hibernate.initialize(it.authorities));
+        return user;
     }
 
     public static Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email) {
-        return find("FROM User u LEFT JOIN FETCH u.authorities WHERE LOWER(u.login) = LOWER(?1)", email).firstResultOptional();
+        return find("FROM User u LEFT JOIN FETCH u.authorities WHERE LOWER(u.email) = LOWER(?1)", email).firstResultOptional();
+    }
+
+    /**
+     * Find a user by login or by email in a single query, served by the login unique index and the
+     * {@code lower(email)} index. A user whose login matches wins over another one whose email matches.
+     *
+     * @param loginOrEmail the login or email, in any case.
+     * @return the user with its authorities.
+     */
+    public static Optional<User> findOneWithAuthoritiesByLoginOrEmailIgnoreCase(String loginOrEmail) {
+        String lowercase = loginOrEmail.toLowerCase(Locale.ENGLISH);
+        List<User> users = User.<User>find(
+            "FROM User u LEFT JOIN FETCH u.authorities WHERE u.login = ?1 OR LOWER(u.email) = ?1",
+            lowercase
+        ).list();
+        return users.stream().filter(user -> lowercase.equals(user.login)).findFirst().or(() -> users.stream().findFirst());
     }
 
     public static List<User> findAllByLoginNot(Page page, String login) {
         return find("login != ?1", login).page(page).list();
     }
+
+    /**
+     * Load the authority names of several users in a single query, rather than initializing each lazy
+     * {@link #authorities} collection.
+     *
+     * @param ids the ids of the users.
+     * @return the authority names by user id; users without authorities are absent.
+     */
+    public static Map<Long, Set<String>> findAuthorityNamesByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return getEntityManager()
+            .createQuery("SELECT u.id, a.name FROM User u JOIN u.authorities a WHERE u.id IN ?1", Object[].class)
+            .setParameter(1, ids)
+            .getResultStream()
+            .collect(Collectors.groupingBy(row -> (Long) row[0], Collectors.mapping(row -> (String) row[1], Collectors.toSet())));
+    }
+
+    /**
+     * Stream the columns of every user with the name of each of its authorities, one row per user and
+     * authority, ordered by id so that the rows of a user are consecutive. Rows are projections read
+     * through a stateless session: nothing is attached to a persistence context while the stream is read.
+     *
+     * @param session   the stateless session to read with.
+     * @param login     the login to exclude.
+     * @param fetchSize the number of rows read per database round trip.
+     * @return the rows: id, login, first name, last name, email, image URL, activated, language key,
+     * created by, created date, last modified by, last modified date and authority name, {@code null}
+     * for a user without authorities.
+     */
+    public static Stream<Object[]> streamAllWithAuthorityNamesByLoginNot(StatelessSession session, String login, int fetchSize) {
+        return session
+            .createSelectionQuery(
+                "SELECT u.id, u.login, u.firstName, u.lastName, u.email, u.imageUrl, u.activated, u.langKey, " +
+                "u.createdBy, u.createdDate, u.lastModifiedBy, u.lastModifiedDate, a.name " +
+                "FROM User u LEFT JOIN u.authorities a WHERE u.login != ?1 ORDER BY u.id",
+                Object[].class
+            )
+            .setParameter(1, login)
+            .setFetchSize(fetchSize)
+            .setReadOnly(true)
+            .getResultStream();
+    }
+
+    /**
+     * Stream the login and email of every user, through a stateless session.
+     *
+     * @param session   the stateless session to read with.
+     * @param fetchSize the number of rows read per database round trip.
+     * @return the rows: login and email, {@code null} for a user without email.
+     */
+    public static Stream<Object[]> streamAllLoginsAndEmails(StatelessSession session, int fetchSize) {
+        return session
+            .createSelectionQuery("SELECT u.login, u.email FROM User u", Object[].class)
+            .setFetchSize(fetchSize)
+            .setReadOnly(true)
+            .getResultStream();
+    }
+
+    /**
+     * Find, in a single query, which of several logins and emails are already used.
+     *
+     * @param logins the lowercase logins.
+     * @param emails the lowercase emails.
+     * @return the login and lowercase email of each user holding one of them.
+     */
+    public static List<Object[]> findLoginAndEmailByLoginInOrEmailIn(Collection<String> logins, Collection<String> emails) {
+        return getEntityManager()
+            .createQuery("SELECT u.login, LOWER(u.email) FROM User u WHERE u.login IN ?1 OR LOWER(u.email) IN ?2", Object[].class)
+            .setParameter(1, logins)
+            .setParameter(2, emails)
+            .getResultList();
+    }
+
+    public static List<User> findAllByLoginNot(Page page, Sort sort, String login) {
+        return find("login != ?1", sort, login).page(page).list();
+    }
+
+    /**
+     * Keyset pagination: the page of users right after the last user of the previous page, whatever the depth
+     * of the page. Users are ordered as by {@link #keysetSort}, and the page starts past both the value and the
+     * id of that last user, so that users sharing a value are neither skipped nor repeated.
+     *
+     * @param property  the property the users are sorted on.
+     * @param direction the sort direction, of both the property and the id.
+     * @param after     the value of the property on the last user of the previous page, {@code null} if it has none.
+     * @param afterId   the id of the last user of the previous page.
+     * @param size      the page size.
+     * @param login     the login to exclude.
+     * @return the page of users.
+     */
+    public static List<User> findAllByLoginNotAfter(
+        String property,
+        Sort.Direction direction,
+        Object after,
+        long afterId,
+        int size,
+        String login
+    ) {
+        String operator = direction == Sort.Direction.Ascending ? ">" : "<";
+        Sort sort = keysetSort(property, direction);
+        PanacheQuery<User> query;
+        if ("id".equals(property)) {
+            query = find("login != ?1 AND id " + operator + " ?2", sort, login, afterId);
+        } else if (after == null) {
+            // past the last value: only users without one are left
+            query = find("login != ?1 AND " + property + " IS NULL AND id " + operator + " ?2", sort, login, afterId);
+        } else {
+            String seek = property + " " + operator + " ?2 OR (" + property + " = ?2 AND id " + operator + " ?3)";
+            query = find("login != ?1 AND (" + seek + " OR " + property + " IS NULL)", sort, login, after, afterId);
+        }
+        return query.page(0, size).list();
+    }
+
+    /**
+     * The order of keyset pagination: on the property, users without a value last, then on the id.
+     *
+     * @param property  the property the users are sorted on.
+     * @param direction the sort direction, of both the property and the id.
+     * @return the sort.
+     */
+    public static Sort keysetSort(String property, Sort.Direction direction) {
+        Sort sort = Sort.by(property, direction, Sort.NullPrecedence.NULLS_LAST);
+        return "id".equals(property) ? sort : sort.and("id", direction);
+    }
 }
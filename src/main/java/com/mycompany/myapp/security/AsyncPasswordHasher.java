@@ -0,0 +1,127 @@
+package com.mycompany.myapp.security;
+
+import com.mycompany.myapp.config.JHipsterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs {@link BCryptPasswordHasher} work on a dedicated, bounded pool so that a burst of logins
+ * cannot tie up every request worker with BCrypt CPU time.
+ * <p>
+ * When the queue is full, the returned stage fails immediately with a {@link PasswordHashingRejectedException}
+ * ({@code 503 Service Unavailable}) instead of queueing more work.
+ */
+@ApplicationScoped
+public class AsyncPasswordHasher {
+
+    private final Logger log = LoggerFactory.getLogger(AsyncPasswordHasher.class);
+
+    private final BCryptPasswordHasher passwordHasher;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer queueWait;
+
+    private final Counter rejected;
+
+    @Inject
+    public AsyncPasswordHasher(BCryptPasswordHasher passwordHasher, JHipsterProperties jHipsterProperties, MeterRegistry meterRegistry) {
+        this(
+            passwordHasher,
+            jHipsterProperties.security().passwordHasher().poolSize().orElse(Runtime.getRuntime().availableProcessors()),
+            jHipsterProperties.security().passwordHasher().queueCapacity(),
+            meterRegistry
+        );
+    }
+
+    AsyncPasswordHasher(BCryptPasswordHasher passwordHasher, int poolSize, int queueCapacity, MeterRegistry meterRegistry) {
+        this.passwordHasher = passwordHasher;
+        this.executor = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new HasherThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        Gauge.builder("password.hasher.queue.size", executor, e -> e.getQueue().size())
+            .description("Password hashing tasks waiting for a worker")
+            .register(meterRegistry);
+        Gauge.builder("password.hasher.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Password hashing workers currently busy")
+            .register(meterRegistry);
+        this.queueWait = Timer.builder("password.hasher.queue.wait")
+            .description("Time spent by password hashing tasks waiting in the queue")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("password.hasher.rejected")
+            .description("Password hashing tasks rejected because the queue was full")
+            .register(meterRegistry);
+        log.debug("Password hasher pool started with {} workers and a queue of {}", poolSize, queueCapacity);
+    }
+
+    public CompletionStage<Boolean> checkPassword(String plaintextPassword, String hashedPassword) {
+        return submit(() -> passwordHasher.checkPassword(plaintextPassword, hashedPassword));
+    }
+
+    public CompletionStage<String> hash(String password) {
+        return submit(() -> passwordHasher.hash(password));
+    }
+
+    public boolean needsRehash(String hashedPassword) {
+        return passwordHasher.needsRehash(hashedPassword);
+    }
+
+    private <T> CompletionStage<T> submit(Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    result.complete(task.get());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing rejected: {} tasks already queued", executor.getQueue().size());
+            result.completeExceptionally(new PasswordHashingRejectedException("Too many concurrent authentication requests"));
+        }
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class HasherThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hasher-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
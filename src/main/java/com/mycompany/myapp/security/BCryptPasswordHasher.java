@@ -1,12 +1,14 @@
 package com.mycompany.myapp.security;
 
+import com.mycompany.myapp.config.JHipsterProperties;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
 import java.util.Objects;
-import org.wildfly.security.credential.PasswordCredential;
-import org.wildfly.security.evidence.PasswordGuessEvidence;
 import org.wildfly.security.password.Password;
 import org.wildfly.security.password.PasswordFactory;
 import org.wildfly.security.password.WildFlyElytronPasswordProvider;
@@ -15,12 +17,20 @@ import org.wildfly.security.password.spec.EncryptablePasswordSpec;
 import org.wildfly.security.password.spec.IteratedSaltedPasswordAlgorithmSpec;
 import org.wildfly.security.password.util.ModularCrypt;
 
+/**
+ * BCrypt hashing engine.
+ * <p>
+ * {@link PasswordFactory} instances are created once per thread and reused, salts come from a single
+ * pre-seeded {@link SecureRandom}, and the clear text characters are wiped once a hash or check is done.
+ */
 @ApplicationScoped
 public class BCryptPasswordHasher {
 
     private static final WildFlyElytronPasswordProvider provider = new WildFlyElytronPasswordProvider();
     public static final int DEFAULT_ITERATION_COUNT = 10;
 
+    private static final ThreadLocal<PasswordFactory> passwordFactory = ThreadLocal.withInitial(BCryptPasswordHasher::newPasswordFactory);
+
     private final int iterationCount;
     private final SecureRandom random;
 
@@ -28,21 +38,44 @@ public class BCryptPasswordHasher {
         this(DEFAULT_ITERATION_COUNT);
     }
 
+    @Inject
+    public BCryptPasswordHasher(JHipsterProperties jHipsterProperties) {
+        this(jHipsterProperties.security().passwordHasher().cost());
+    }
+
     public BCryptPasswordHasher(int iterationCount) {
         this(iterationCount, null);
     }
 
     public BCryptPasswordHasher(int iterationCount, SecureRandom random) {
         this.iterationCount = iterationCount;
-        this.random = random;
+        this.random = random != null ? random : newSeededRandom();
     }
 
     public boolean checkPassword(String plaintextPassword, String hashedPassword) {
         Objects.requireNonNull(plaintextPassword, "plaintext password is required");
         Objects.requireNonNull(hashedPassword, "hashed password is required");
-        PasswordGuessEvidence evidence = new PasswordGuessEvidence(plaintextPassword.toCharArray());
-        PasswordCredential credential = new PasswordCredential(decode(hashedPassword));
-        return credential.verify(evidence);
+        char[] guess = plaintextPassword.toCharArray();
+        try {
+            return passwordFactory.get().verify(decode(hashedPassword), guess);
+        } catch (InvalidKeyException e) {
+            throw new RuntimeException(e);
+        } finally {
+            Arrays.fill(guess, '\0');
+        }
+    }
+
+    /**
+     * Tell whether a stored hash was computed with a cost other than the configured one, and should be
+     * replaced by a fresh hash the next time the clear text password is known.
+     *
+     * @param hashedPassword the stored hash.
+     * @return {@code true} if the hash cost differs from the configured cost.
+     */
+    public boolean needsRehash(String hashedPassword) {
+        Objects.requireNonNull(hashedPassword, "hashed password is required");
+        Password password = decode(hashedPassword);
+        return !(password instanceof BCryptPassword) || ((BCryptPassword) password).getIterationCount() != iterationCount;
     }
 
     private Password decode(String password) {
@@ -59,29 +92,35 @@ public class BCryptPasswordHasher {
         if (iterationCount <= 0) throw new IllegalArgumentException("Iteration count must be greater than zero");
 
         byte[] salt = new byte[BCryptPassword.BCRYPT_SALT_SIZE];
-        if (random != null) {
-            random.nextBytes(salt);
-        } else {
-            new SecureRandom().nextBytes(salt);
-        }
+        random.nextBytes(salt);
+
+        char[] chars = password.toCharArray();
+        IteratedSaltedPasswordAlgorithmSpec iteratedAlgorithmSpec = new IteratedSaltedPasswordAlgorithmSpec(iterationCount, salt);
+        EncryptablePasswordSpec encryptableSpec = new EncryptablePasswordSpec(chars, iteratedAlgorithmSpec);
 
-        PasswordFactory passwordFactory;
         try {
-            passwordFactory = PasswordFactory.getInstance(BCryptPassword.ALGORITHM_BCRYPT, provider);
-        } catch (NoSuchAlgorithmException e) {
+            BCryptPassword original = (BCryptPassword) passwordFactory.get().generatePassword(encryptableSpec);
+            return ModularCrypt.encodeAsString(original);
+        } catch (InvalidKeySpecException e) {
             // can't really happen
             throw new RuntimeException(e);
+        } finally {
+            Arrays.fill(chars, '\0');
         }
+    }
 
-        IteratedSaltedPasswordAlgorithmSpec iteratedAlgorithmSpec = new IteratedSaltedPasswordAlgorithmSpec(iterationCount, salt);
-        EncryptablePasswordSpec encryptableSpec = new EncryptablePasswordSpec(password.toCharArray(), iteratedAlgorithmSpec);
-
+    private static PasswordFactory newPasswordFactory() {
         try {
-            BCryptPassword original = (BCryptPassword) passwordFactory.generatePassword(encryptableSpec);
-            return ModularCrypt.encodeAsString(original);
-        } catch (InvalidKeySpecException e) {
+            return PasswordFactory.getInstance(BCryptPassword.ALGORITHM_BCRYPT, provider);
+        } catch (NoSuchAlgorithmException e) {
             // can't really happen
             throw new RuntimeException(e);
         }
     }
+
+    private static SecureRandom newSeededRandom() {
+        SecureRandom secureRandom = new SecureRandom();
+        secureRandom.nextBytes(new byte[64]);
+        return secureRandom;
+    }
 }
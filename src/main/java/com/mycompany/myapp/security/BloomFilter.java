@@ -0,0 +1,99 @@
+package com.mycompany.myapp.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Bloom filter of strings: {@link #mightContain} is {@code false} only for strings never {@link #put}, and
+ * wrongly {@code true} for about the configured share of the others while no more than the expected number of
+ * strings are put.
+ * <p>
+ * Bits are set with atomic updates, so that the filter is read and written concurrently without locking. The
+ * bit indexes of a string are derived from two 64-bit hashes (Kirsch-Mitzenmacher double hashing).
+ */
+final class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final long SECOND_HASH_SEED = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray words;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    private final AtomicLong insertions = new AtomicLong();
+
+    BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil((-n * Math.log(falsePositiveProbability)) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round(((double) bitCount / n) * Math.log(2)));
+    }
+
+    void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ SECOND_HASH_SEED);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ SECOND_HASH_SEED);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    long insertions() {
+        return insertions.get();
+    }
+
+    /**
+     * @return the probability that {@link #mightContain} is wrongly {@code true}, given the strings put so far.
+     */
+    double falsePositiveProbability() {
+        return Math.pow(1 - Math.exp((-hashCount * (double) insertions.get()) / bitCount), hashCount);
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * The MurmurHash3 finalizer, so that every bit of the input affects every bit of the hash.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53a87bdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
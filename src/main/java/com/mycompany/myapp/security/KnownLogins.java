@@ -0,0 +1,208 @@
+package com.mycompany.myapp.security;
+
+import com.mycompany.myapp.config.JHipsterProperties;
+import com.mycompany.myapp.domain.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link BloomFilter} of the logins and emails of every user, so that logins for accounts that do not exist
+ * are rejected without a database lookup.
+ * <p>
+ * The filter is built at startup, streaming the logins and emails of the users, and rebuilt every
+ * {@code rebuild-interval}, which drops the users deleted since and resizes it to the number of users. Users
+ * created or renamed through {@code UserService} are added at once, and again when their transaction commits,
+ * so that a rebuild running meanwhile cannot miss them. The filter only knows of the users written by this
+ * instance until its next rebuild: with several instances, keep the interval short.
+ */
+@ApplicationScoped
+public class KnownLogins {
+
+    private static final int FETCH_SIZE = 1000;
+
+    /** Room for the number of users to grow before the next rebuild. */
+    private static final int GROWTH_FACTOR = 2;
+
+    private static final long MINIMUM_EXPECTED_INSERTIONS = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(KnownLogins.class);
+
+    private final boolean enabled;
+
+    private final double falsePositiveProbability;
+
+    private final SessionFactory sessionFactory;
+
+    private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    private final Counter skippedLookups;
+
+    private final Counter falsePositives;
+
+    /** {@code null} until built. */
+    private volatile BloomFilter filter;
+
+    /** The filter being rebuilt, which users are added to as well. */
+    private volatile BloomFilter building;
+
+    @Inject
+    public KnownLogins(
+        JHipsterProperties jHipsterProperties,
+        SessionFactory sessionFactory,
+        TransactionSynchronizationRegistry transactionSynchronizationRegistry,
+        MeterRegistry meterRegistry
+    ) {
+        JHipsterProperties.Security.Authentication.LoginFilter properties = jHipsterProperties.security().authentication().loginFilter();
+        this.enabled = properties.enabled();
+        this.falsePositiveProbability = properties.falsePositiveProbability();
+        this.sessionFactory = sessionFactory;
+        this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        Gauge.builder("login.filter.memory", this, knownLogins -> knownLogins.filter == null ? 0 : knownLogins.filter.memoryBytes())
+            .description("Memory used by the filter of known logins and emails")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("login.filter.false.positive.rate", this, knownLogins ->
+            knownLogins.filter == null ? 0 : knownLogins.filter.falsePositiveProbability()
+        )
+            .description("Expected share of unknown logins that the filter lets through to the database")
+            .register(meterRegistry);
+        this.skippedLookups = Counter.builder("login.filter.skipped")
+            .description("Logins rejected by the filter without a database lookup")
+            .register(meterRegistry);
+        this.falsePositives = Counter.builder("login.filter.false.positives")
+            .description("Logins let through by the filter that the database did not find")
+            .register(meterRegistry);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Replace the filter by one built from the users in the database.
+     */
+    @Scheduled(every = "{jhipster.security.authentication.login-filter.rebuild-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long users = QuarkusTransaction.requiringNew().call(User::count);
+        BloomFilter rebuilt = new BloomFilter(
+            Math.max(MINIMUM_EXPECTED_INSERTIONS, 2 * users * GROWTH_FACTOR),
+            falsePositiveProbability
+        );
+        building = rebuilt;
+        QuarkusTransaction.requiringNew()
+            .run(() -> {
+                try (
+                    StatelessSession session = sessionFactory.openStatelessSession();
+                    Stream<Object[]> rows = User.streamAllLoginsAndEmails(session, FETCH_SIZE)
+                ) {
+                    for (Iterator<Object[]> it = rows.iterator(); it.hasNext();) {
+                        Object[] row = it.next();
+                        put(rebuilt, (String) row[0]);
+                        put(rebuilt, (String) row[1]);
+                    }
+                }
+            });
+        filter = rebuilt;
+        building = null;
+        log.debug(
+            "Built the filter of {} logins and emails in {} ms, {} bytes",
+            rebuilt.insertions(),
+            (System.nanoTime() - start) / 1_000_000,
+            rebuilt.memoryBytes()
+        );
+    }
+
+    /**
+     * Add the login and email of a user. When called inside a transaction, they are added again once it
+     * completes.
+     *
+     * @param login the login of the user.
+     * @param email the email of the user, or {@code null}.
+     */
+    public void add(String login, String email) {
+        if (!enabled) {
+            return;
+        }
+        addNow(login, email);
+        if (transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactionSynchronizationRegistry.registerInterposedSynchronization(
+                new Synchronization() {
+                    @Override
+                    public void beforeCompletion() {}
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        addNow(login, email);
+                    }
+                }
+            );
+        }
+    }
+
+    private void addNow(String login, String email) {
+        // read before the filter, as a rebuild publishes the new filter before it stops building
+        BloomFilter rebuilt = building;
+        BloomFilter current = filter;
+        if (current != null) {
+            put(current, login);
+            put(current, email);
+        }
+        if (rebuilt != null) {
+            put(rebuilt, login);
+            put(rebuilt, email);
+        }
+    }
+
+    /**
+     * @param loginOrEmail a login, or an email.
+     * @return {@code false} if no user has this login or email, {@code true} if one may have it.
+     */
+    public boolean mightExist(String loginOrEmail) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(normalize(loginOrEmail))) {
+            return true;
+        }
+        skippedLookups.increment();
+        return false;
+    }
+
+    /**
+     * Record that a login or email let through by the filter was not found in the database.
+     */
+    public void recordFalsePositive() {
+        if (filter != null) {
+            falsePositives.increment();
+        }
+    }
+
+    private static void put(BloomFilter bloomFilter, String value) {
+        if (value != null) {
+            bloomFilter.put(normalize(value));
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,12 @@
+package com.mycompany.myapp.security;
+
+import jakarta.ws.rs.ServiceUnavailableException;
+
+public class PasswordHashingRejectedException extends ServiceUnavailableException {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message, RETRY_AFTER_SECONDS);
+    }
+}
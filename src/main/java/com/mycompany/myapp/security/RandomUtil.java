@@ -1,6 +1,10 @@
 package com.mycompany.myapp.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.HexFormat;
 import org.apache.commons.lang3.RandomStringUtils;
 
 public class RandomUtil {
@@ -46,4 +50,25 @@ public class RandomUtil {
     public static String generateResetKey() {
         return generateRandomAlphanumericString();
     }
+
+    /**
+     * Hash an activation or reset key, for it to be stored and looked up instead of the key sent to the user.
+     * <p>
+     * The keys are random, so an unsalted SHA-256 is enough to keep a leaked database from activating accounts
+     * or resetting passwords, and gives every key the same fixed-width, indexable hash.
+     *
+     * @param key the key.
+     * @return the hex encoded SHA-256 of the key, 64 characters long, or {@code null} if the key is {@code null}.
+     */
+    public static String hashKey(String key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // can't really happen
+            throw new RuntimeException(e);
+        }
+    }
 }
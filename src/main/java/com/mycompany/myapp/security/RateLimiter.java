@@ -0,0 +1,166 @@
+package com.mycompany.myapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mycompany.myapp.config.JHipsterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Token-bucket rate limiting of the public endpoints doing costly work (BCrypt, lookups, mails), by client IP
+ * and by login, checked before any of that work is done.
+ * <p>
+ * A bucket holds {@code capacity} tokens, refilled evenly over {@code period}. It is kept as a single
+ * {@link AtomicLong}, the time at which it is next full (the generic cell rate algorithm), and taken from with a
+ * compare-and-set: no lock is held, and buckets are spread over the striped map of a Caffeine cache. An idle
+ * bucket is full again after its period, so buckets are evicted once idle that long, and the cache is bounded
+ * to {@code maximum-size} buckets.
+ */
+@ApplicationScoped
+public class RateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    public enum Endpoint {
+        AUTHENTICATE,
+        REGISTER,
+        RESET_PASSWORD,
+    }
+
+    /**
+     * @param capacity the number of requests accepted at once.
+     * @param period   the time to refill the bucket.
+     */
+    public record Rate(int capacity, Duration period) {
+        long intervalNanos() {
+            return period.toNanos() / capacity;
+        }
+    }
+
+    /**
+     * @param ip    the rate by client IP.
+     * @param login the rate by login.
+     */
+    public record Limits(Rate ip, Rate login) {}
+
+    private record BucketKey(Endpoint endpoint, boolean byLogin, String value) {}
+
+    private final boolean enabled;
+
+    private final Map<Endpoint, Limits> limits;
+
+    private final Cache<BucketKey, AtomicLong> buckets;
+
+    private final LongSupplier nanoTime;
+
+    private final Map<Endpoint, Counter> rejected = new EnumMap<>(Endpoint.class);
+
+    @Inject
+    public RateLimiter(JHipsterProperties jHipsterProperties, MeterRegistry meterRegistry) {
+        this(
+            jHipsterProperties.security().rateLimit().enabled(),
+            limits(jHipsterProperties.security().rateLimit()),
+            jHipsterProperties.security().rateLimit().maximumSize(),
+            System::nanoTime,
+            meterRegistry
+        );
+    }
+
+    RateLimiter(boolean enabled, Map<Endpoint, Limits> limits, long maximumSize, LongSupplier nanoTime, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.limits = new EnumMap<>(limits);
+        this.nanoTime = nanoTime;
+        Duration longestPeriod = limits
+            .values()
+            .stream()
+            .flatMap(endpointLimits -> Stream.of(endpointLimits.ip(), endpointLimits.login()))
+            .map(Rate::period)
+            .max(Duration::compareTo)
+            .orElse(Duration.ZERO);
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterAccess(longestPeriod)
+            .ticker(nanoTime::getAsLong)
+            .build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            rejected.put(
+                endpoint,
+                Counter.builder("rate.limit.rejected")
+                    .description("Requests rejected because their client or login exceeded its rate")
+                    .tag("endpoint", endpoint.name().toLowerCase())
+                    .register(meterRegistry)
+            );
+        }
+    }
+
+    private static Map<Endpoint, Limits> limits(JHipsterProperties.Security.RateLimit properties) {
+        Map<Endpoint, Limits> limits = new EnumMap<>(Endpoint.class);
+        limits.put(Endpoint.AUTHENTICATE, limits(properties.authenticate()));
+        limits.put(Endpoint.REGISTER, limits(properties.register()));
+        limits.put(Endpoint.RESET_PASSWORD, limits(properties.resetPassword()));
+        return limits;
+    }
+
+    private static Limits limits(JHipsterProperties.Security.RateLimit.EndpointLimits properties) {
+        return new Limits(
+            new Rate(properties.ip().capacity(), properties.ip().period()),
+            new Rate(properties.login().capacity(), properties.login().period())
+        );
+    }
+
+    /**
+     * Take a token from the bucket of the client IP, and from the one of the login, of an endpoint.
+     *
+     * @param endpoint the endpoint.
+     * @param clientIp the IP of the client, or {@code null} if unknown.
+     * @param login    the login, or email, the request is for, or {@code null} if none.
+     * @throws RateLimitExceededException {@code 429 (Too Many Requests)} if either bucket is empty.
+     */
+    public void check(Endpoint endpoint, String clientIp, String login) {
+        if (!enabled) {
+            return;
+        }
+        Limits endpointLimits = limits.get(endpoint);
+        long waitNanos = 0;
+        if (clientIp != null) {
+            waitNanos = tryAcquire(new BucketKey(endpoint, false, clientIp), endpointLimits.ip());
+        }
+        if (waitNanos == 0 && login != null) {
+            waitNanos = tryAcquire(new BucketKey(endpoint, true, login.toLowerCase()), endpointLimits.login());
+        }
+        if (waitNanos > 0) {
+            rejected.get(endpoint).increment();
+            throw new RateLimitExceededException((waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        }
+    }
+
+    /**
+     * @return {@code 0} if a token was taken, else the time until the next token, in nanoseconds.
+     */
+    private long tryAcquire(BucketKey key, Rate rate) {
+        AtomicLong fullAt = buckets.get(key, it -> new AtomicLong(Long.MIN_VALUE));
+        long interval = rate.intervalNanos();
+        long period = interval * rate.capacity();
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long waitNanos = next - now - period;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.mycompany.myapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mycompany.myapp.config.JHipsterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.security.runtime.QuarkusSecurityIdentity;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Short-lived cache of credentials that already passed a BCrypt check, so that clients logging in
+ * repeatedly with unchanged credentials do not pay for a full verification every time.
+ * <p>
+ * Entries are keyed by the presented username and an HMAC of the presented password, computed with a
+ * random key that never leaves the process: the clear text password is never stored.
+ * <p>
+ * A login may read the user before a credential change commits, and verify the password after the change
+ * evicted its entries. To keep it from caching the old credentials, every eviction bumps a generation, which a
+ * login reads before looking the user up: an identity is only cached if no eviction happened since. The
+ * generation is shared by all users, as a login presented with an email cannot be matched to the login that
+ * is invalidated; a login racing with any credential change is then merely not cached.
+ */
+@ApplicationScoped
+public class VerifiedCredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Logger log = LoggerFactory.getLogger(VerifiedCredentialCache.class);
+
+    private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    private final Cache<String, QuarkusSecurityIdentity> cache;
+
+    private final SecretKeySpec hmacKey;
+
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::newMac);
+
+    private final AtomicLong generation = new AtomicLong();
+
+    @Inject
+    public VerifiedCredentialCache(
+        JHipsterProperties jHipsterProperties,
+        MeterRegistry meterRegistry,
+        TransactionSynchronizationRegistry transactionSynchronizationRegistry
+    ) {
+        this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        JHipsterProperties.Security.Authentication.CredentialCache properties = jHipsterProperties
+            .security()
+            .authentication()
+            .credentialCache();
+        if (properties.enabled()) {
+            this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.timeToLive())
+                .maximumSize(properties.maximumSize())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "verified-credentials");
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            this.hmacKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+            log.debug("Verified credential cache enabled, entries expire after {}", properties.timeToLive());
+        } else {
+            this.cache = null;
+            this.hmacKey = null;
+        }
+    }
+
+    public Optional<QuarkusSecurityIdentity> get(String username, String password) {
+        if (cache == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(key(username, password)));
+    }
+
+    /**
+     * @return the current generation, to read before looking up the user whose identity is {@link #put}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Cache a verified identity, unless credentials were evicted since the given generation.
+     *
+     * @param username   the presented username.
+     * @param password   the presented password.
+     * @param identity   the identity.
+     * @param generation the {@link #generation()} read before the user was looked up.
+     */
+    public void put(String username, String password, QuarkusSecurityIdentity identity, long generation) {
+        if (cache == null || this.generation.get() != generation) {
+            return;
+        }
+        String key = key(username, password);
+        cache.put(key, identity);
+        // an eviction that started meanwhile may have missed the entry
+        if (this.generation.get() != generation) {
+            cache.asMap().remove(key, identity);
+        }
+    }
+
+    /**
+     * Drop every cached credential of a user. When called inside a transaction, the entries are dropped
+     * again once it completes; logins that looked the user up before then do not cache it, see {@link #put}.
+     *
+     * @param login the login of the user.
+     */
+    public void invalidate(String login) {
+        if (cache == null || login == null) {
+            return;
+        }
+        evict(login);
+        if (transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactionSynchronizationRegistry.registerInterposedSynchronization(
+                new Synchronization() {
+                    @Override
+                    public void beforeCompletion() {}
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        evict(login);
+                    }
+                }
+            );
+        }
+    }
+
+    private void evict(String login) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(identity -> identity.getPrincipal().getName().equalsIgnoreCase(login));
+    }
+
+    private String key(String username, String password) {
+        byte[] digest = mac.get().doFinal(password.getBytes(StandardCharsets.UTF_8));
+        return username.toLowerCase(Locale.ENGLISH) + ':' + Base64.getEncoder().encodeToString(digest);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+            instance.init(hmacKey);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            // can't really happen
+            throw new RuntimeException(e);
+        }
+    }
+}
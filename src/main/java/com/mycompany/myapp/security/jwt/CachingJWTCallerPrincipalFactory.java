@@ -0,0 +1,155 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mycompany.myapp.config.JHipsterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.smallrye.jwt.auth.principal.DefaultJWTCallerPrincipalFactory;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.auth.principal.JWTCallerPrincipal;
+import io.smallrye.jwt.auth.principal.ParseException;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import org.jose4j.jwx.JsonWebStructure;
+import org.jose4j.lang.JoseException;
+
+/**
+ * Keeps the principals of bearer tokens that already passed signature and claims verification, so that a
+ * client sending the same token on every call only pays for the RSA verification once.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the token and expire with the token {@code exp} claim. A cache
+ * hit returns the very principal built on the first verification, so both paths produce the same
+ * security context.
+ * <p>
+ * Tokens whose {@code kid} header names a key of the {@link JwtKeyring} are verified with that key, so
+ * tokens signed before a key rotation stay valid; other tokens are verified with the configured
+ * {@code mp.jwt.verify.publickey}.
+ */
+@ApplicationScoped
+@Alternative
+@Priority(1)
+public class CachingJWTCallerPrincipalFactory extends DefaultJWTCallerPrincipalFactory {
+
+    private final JwtKeyring keyring;
+
+    private final Cache<String, JWTCallerPrincipal> cache;
+
+    private final Timer verification;
+
+    private final Counter timeSaved;
+
+    private final ThreadLocal<MessageDigest> digest = ThreadLocal.withInitial(CachingJWTCallerPrincipalFactory::newDigest);
+
+    @Inject
+    public CachingJWTCallerPrincipalFactory(JHipsterProperties jHipsterProperties, JwtKeyring keyring, MeterRegistry meterRegistry) {
+        this.keyring = keyring;
+        JHipsterProperties.Security.Authentication.Jwt.VerifiedTokenCache properties = jHipsterProperties
+            .security()
+            .authentication()
+            .jwt()
+            .verifiedTokenCache();
+        this.verification = Timer.builder("jwt.verification").description("Time spent verifying bearer tokens").register(meterRegistry);
+        this.timeSaved = Counter.builder("jwt.verification.saved")
+            .description("Estimated verification time saved by the verified token cache")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        if (properties.enabled()) {
+            this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new ExpireWithToken())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "verified-tokens");
+        } else {
+            this.cache = null;
+        }
+    }
+
+    @Override
+    public JWTCallerPrincipal parse(String token, JWTAuthContextInfo authContextInfo) throws ParseException {
+        if (cache == null) {
+            return verify(token, authContextInfo);
+        }
+        String key = Base64.getEncoder().encodeToString(digest.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        JWTCallerPrincipal principal = cache.getIfPresent(key);
+        if (principal != null) {
+            timeSaved.increment(verification.mean(TimeUnit.SECONDS));
+            return principal;
+        }
+        principal = verify(token, authContextInfo);
+        cache.put(key, principal);
+        return principal;
+    }
+
+    private JWTCallerPrincipal verify(String token, JWTAuthContextInfo authContextInfo) throws ParseException {
+        long start = System.nanoTime();
+        try {
+            return super.parse(token, withKeyringKey(token, authContextInfo));
+        } finally {
+            verification.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return a copy of the context that verifies with the keyring key named by the token {@code kid}
+     * header, or the context itself when there is no such key.
+     */
+    private JWTAuthContextInfo withKeyringKey(String token, JWTAuthContextInfo authContextInfo) {
+        String keyId;
+        try {
+            keyId = JsonWebStructure.fromCompactSerialization(token).getKeyIdHeaderValue();
+        } catch (JoseException e) {
+            // malformed, let the default parser report it
+            return authContextInfo;
+        }
+        PublicKey key = keyId == null ? null : keyring.current().verificationKeys().get(keyId);
+        if (key == null) {
+            return authContextInfo;
+        }
+        JWTAuthContextInfo keyringContext = new JWTAuthContextInfo(authContextInfo);
+        keyringContext.setPublicKeyLocation(null);
+        keyringContext.setPublicKeyContent(null);
+        keyringContext.setPublicVerificationKey(key);
+        return keyringContext;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // can't really happen
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static final class ExpireWithToken implements Expiry<String, JWTCallerPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, JWTCallerPrincipal principal, long currentTime) {
+            long remainingMillis = TimeUnit.SECONDS.toMillis(principal.getExpirationTime()) - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JWTCallerPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, JWTCallerPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
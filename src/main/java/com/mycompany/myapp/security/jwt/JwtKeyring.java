@@ -0,0 +1,218 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.mycompany.myapp.config.JHipsterProperties;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jose4j.jwk.JsonWebKey;
+import org.jose4j.jwk.JsonWebKeySet;
+import org.jose4j.jwk.PublicJsonWebKey;
+import org.jose4j.jwk.Use;
+import org.jose4j.lang.HashUtil;
+import org.jose4j.lang.JoseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The keys used for tokens: one active signing key, plus verification-only public keys kept while tokens
+ * signed by a retired key may still be in use.
+ * <p>
+ * Every key is identified by the RFC 7638 thumbprint of its public key, so key ids are the same on every
+ * node and across restarts. Rotating the signing key is done in three steps: publish the new public key
+ * as a verification key, switch the private key file, then drop the old public key once the tokens it
+ * signed have expired.
+ */
+@ApplicationScoped
+public class JwtKeyring {
+
+    private static final byte[] PROBE = "jwt-keyring-probe".getBytes(StandardCharsets.US_ASCII);
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final Logger log = LoggerFactory.getLogger(JwtKeyring.class);
+
+    private final SignatureAlgorithm algorithm;
+
+    private final PrivateKeyResource signingKeyResource;
+
+    private final List<PublicKey> verificationOnlyKeys;
+
+    private volatile Keys keys;
+
+    /**
+     * A snapshot of the keyring.
+     *
+     * @param signingKey       the active private key.
+     * @param signingKeyId     the id of the active key.
+     * @param verificationKeys the public keys accepted for verification, by key id.
+     * @param jwks             the JSON Web Key Set of the verification keys.
+     */
+    public record Keys(PrivateKey signingKey, String signingKeyId, Map<String, PublicKey> verificationKeys, String jwks) {}
+
+    @Inject
+    public JwtKeyring(JHipsterProperties jHipsterProperties) throws IOException, GeneralSecurityException {
+        this(
+            jHipsterProperties.security().authentication().jwt(),
+            SignatureAlgorithm.fromJwsName(jHipsterProperties.security().authentication().jwt().algorithm())
+        );
+    }
+
+    private JwtKeyring(JHipsterProperties.Security.Authentication.Jwt jwt, SignatureAlgorithm algorithm)
+        throws IOException, GeneralSecurityException {
+        this(
+            algorithm,
+            PrivateKeyResource.load(
+                jwt.privateKey().location(),
+                jwt.privateKey().reloadInterval(),
+                key -> algorithm.keyType().equals(key.getAlgorithm())
+            ),
+            readPublicKeys(jwt.verificationKeys().orElse(List.of()))
+        );
+    }
+
+    JwtKeyring(SignatureAlgorithm algorithm, PrivateKeyResource signingKeyResource, List<PublicKey> verificationOnlyKeys)
+        throws GeneralSecurityException {
+        PrivateKey key = signingKeyResource.get();
+        if (!algorithm.keyType().equals(key.getAlgorithm())) {
+            throw new IllegalArgumentException(
+                "A " + key.getAlgorithm() + " key cannot be used to sign " + algorithm.jwsName() + " tokens"
+            );
+        }
+        this.algorithm = algorithm;
+        this.signingKeyResource = signingKeyResource;
+        this.verificationOnlyKeys = List.copyOf(verificationOnlyKeys);
+        this.keys = buildKeys(key);
+    }
+
+    /**
+     * A keyring holding a single key that never changes.
+     */
+    public static JwtKeyring of(PrivateKey key, SignatureAlgorithm algorithm) throws GeneralSecurityException {
+        return new JwtKeyring(algorithm, PrivateKeyResource.of(key), List.of());
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the current keys, rebuilt first if the signing key file was rotated.
+     */
+    public Keys current() {
+        Keys current = keys;
+        PrivateKey key = signingKeyResource.get();
+        if (key == current.signingKey()) {
+            return current;
+        }
+        synchronized (this) {
+            if (keys.signingKey() != key) {
+                try {
+                    keys = buildKeys(key);
+                } catch (GeneralSecurityException e) {
+                    throw new RuntimeException(e);
+                }
+                log.info("Signing key rotated, the active key id is now {}", keys.signingKeyId());
+            }
+            return keys;
+        }
+    }
+
+    private Keys buildKeys(PrivateKey signingKey) throws GeneralSecurityException {
+        Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
+        PublicKey signingPublicKey = publicKeyOf(signingKey);
+        String signingKeyId;
+        if (signingPublicKey != null) {
+            signingKeyId = thumbprint(signingPublicKey);
+            verificationKeys.put(signingKeyId, signingPublicKey);
+        } else {
+            signingKeyId = BASE64_URL.encodeToString(MessageDigest.getInstance("SHA-256").digest(signingKey.getEncoded()));
+            log.warn(
+                "No verification key matches the {} signing key, add its public key to the verification keys",
+                signingKey.getAlgorithm()
+            );
+        }
+        for (PublicKey verificationKey : verificationOnlyKeys) {
+            verificationKeys.putIfAbsent(thumbprint(verificationKey), verificationKey);
+        }
+        return new Keys(signingKey, signingKeyId, Collections.unmodifiableMap(verificationKeys), jwks(verificationKeys));
+    }
+
+    /**
+     * Find the public half of a private key: derived for RSA, matched against the verification keys with a
+     * probe signature otherwise.
+     */
+    private PublicKey publicKeyOf(PrivateKey key) throws GeneralSecurityException {
+        if (key instanceof RSAPrivateCrtKey rsaKey) {
+            return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(rsaKey.getModulus(), rsaKey.getPublicExponent()));
+        }
+        Signature signer = Signature.getInstance(algorithm.jcaName());
+        signer.initSign(key);
+        signer.update(PROBE);
+        byte[] probeSignature = signer.sign();
+        for (PublicKey candidate : verificationOnlyKeys) {
+            if (candidate.getAlgorithm().equals(key.getAlgorithm())) {
+                try {
+                    Signature verifier = Signature.getInstance(algorithm.jcaName());
+                    verifier.initVerify(candidate);
+                    verifier.update(PROBE);
+                    if (verifier.verify(probeSignature)) {
+                        return candidate;
+                    }
+                } catch (GeneralSecurityException e) {
+                    // a key on another curve, not a match
+                }
+            }
+        }
+        return null;
+    }
+
+    private String jwks(Map<String, PublicKey> verificationKeys) throws GeneralSecurityException {
+        List<JsonWebKey> jwks = new ArrayList<>(verificationKeys.size());
+        for (Map.Entry<String, PublicKey> entry : verificationKeys.entrySet()) {
+            PublicJsonWebKey jwk = publicJwk(entry.getValue());
+            jwk.setKeyId(entry.getKey());
+            jwk.setUse(Use.SIGNATURE);
+            if (algorithm.keyType().equals(entry.getValue().getAlgorithm())) {
+                jwk.setAlgorithm(algorithm.jwsName());
+            }
+            jwks.add(jwk);
+        }
+        return new JsonWebKeySet(jwks).toJson(JsonWebKey.OutputControlLevel.PUBLIC_ONLY);
+    }
+
+    static String thumbprint(PublicKey key) throws GeneralSecurityException {
+        return publicJwk(key).calculateBase64urlEncodedThumbprint(HashUtil.SHA_256);
+    }
+
+    private static PublicJsonWebKey publicJwk(PublicKey key) throws GeneralSecurityException {
+        try {
+            return PublicJsonWebKey.Factory.newPublicJwk(key);
+        } catch (JoseException e) {
+            throw new InvalidKeyException("Unsupported " + key.getAlgorithm() + " public key", e);
+        }
+    }
+
+    private static List<PublicKey> readPublicKeys(List<String> locations) throws IOException, GeneralSecurityException {
+        List<PublicKey> publicKeys = new ArrayList<>(locations.size());
+        for (String location : locations) {
+            publicKeys.add(PemKeys.decodePublicKey(PemKeys.read(location)));
+        }
+        return publicKeys;
+    }
+}
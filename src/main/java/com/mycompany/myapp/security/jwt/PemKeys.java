@@ -0,0 +1,110 @@
+package com.mycompany.myapp.security.jwt;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.KeySpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reading and decoding of PEM encoded keys.
+ * <p>
+ * Locations prefixed with {@code file:} are read from the file system; anything else, optionally prefixed
+ * with {@code classpath:}, is a classpath resource.
+ */
+public final class PemKeys {
+
+    public static final String CLASSPATH_PREFIX = "classpath:";
+    public static final String FILE_PREFIX = "file:";
+
+    private static final List<String> KEY_TYPES = List.of("RSA", "EC", "EdDSA");
+
+    private static final String BEGIN = "-----BEGIN ";
+    private static final String END = "-----END ";
+    private static final String DASHES = "-----";
+
+    private PemKeys() {}
+
+    /**
+     * Read the whole content of a PEM file.
+     */
+    public static String read(String location) throws IOException {
+        if (location.startsWith(FILE_PREFIX)) {
+            return Files.readString(Paths.get(location.substring(FILE_PREFIX.length())), StandardCharsets.US_ASCII);
+        }
+        String resource = location.startsWith(CLASSPATH_PREFIX) ? location.substring(CLASSPATH_PREFIX.length()) : location;
+        if (!resource.startsWith("/")) {
+            resource = "/" + resource;
+        }
+        try (InputStream in = PemKeys.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new FileNotFoundException("Key not found on the classpath: " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Decode a PKCS#8 PEM private key, whether it is an RSA, EC or EdDSA key.
+     */
+    public static PrivateKey decodePrivateKey(String pemEncoded) throws GeneralSecurityException {
+        PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(toEncodedBytes(pemEncoded));
+        InvalidKeySpecException failure = new InvalidKeySpecException("Not a PKCS#8 RSA, EC or EdDSA private key");
+        for (String keyType : KEY_TYPES) {
+            try {
+                return KeyFactory.getInstance(keyType).generatePrivate(keySpec);
+            } catch (InvalidKeySpecException e) {
+                failure.addSuppressed(e);
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Decode an X.509 PEM public key, whether it is an RSA, EC or EdDSA key.
+     */
+    public static PublicKey decodePublicKey(String pemEncoded) throws GeneralSecurityException {
+        KeySpec keySpec = new X509EncodedKeySpec(toEncodedBytes(pemEncoded));
+        InvalidKeySpecException failure = new InvalidKeySpecException("Not an X.509 RSA, EC or EdDSA public key");
+        for (String keyType : KEY_TYPES) {
+            try {
+                return KeyFactory.getInstance(keyType).generatePublic(keySpec);
+            } catch (InvalidKeySpecException e) {
+                failure.addSuppressed(e);
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Extract the base64 body between the first BEGIN and END boundaries, ignoring line breaks and any
+     * text around the boundaries.
+     */
+    private static byte[] toEncodedBytes(String pem) throws InvalidKeySpecException {
+        int begin = pem.indexOf(BEGIN);
+        if (begin < 0) {
+            throw new InvalidKeySpecException("No PEM BEGIN boundary found");
+        }
+        int bodyStart = pem.indexOf(DASHES, begin + BEGIN.length());
+        int bodyEnd = bodyStart < 0 ? -1 : pem.indexOf(END, bodyStart + DASHES.length());
+        if (bodyEnd < 0) {
+            throw new InvalidKeySpecException("No PEM END boundary found");
+        }
+        try {
+            return Base64.getMimeDecoder().decode(pem.substring(bodyStart + DASHES.length(), bodyEnd));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidKeySpecException("Invalid PEM body", e);
+        }
+    }
+}
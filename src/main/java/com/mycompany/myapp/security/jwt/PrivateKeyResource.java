@@ -0,0 +1,119 @@
+package com.mycompany.myapp.security.jwt;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.time.Duration;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A PEM encoded PKCS#8 private key, read from the classpath or from the file system.
+ * <p>
+ * The key is parsed once, then a {@code file:} key is re-read whenever the file modification time
+ * changes, checked at most once per reload interval, so signing keys can be rotated without a restart.
+ * A file that cannot be parsed, e.g. while it is being written, keeps the current key in use until the
+ * next check.
+ */
+public class PrivateKeyResource {
+
+    private final Logger log = LoggerFactory.getLogger(PrivateKeyResource.class);
+
+    private final String location;
+
+    private final Path path;
+
+    private final long reloadIntervalNanos;
+
+    private final Predicate<PrivateKey> acceptReload;
+
+    private volatile PrivateKey key;
+
+    private volatile FileTime lastModified;
+
+    private volatile long nextCheck;
+
+    private PrivateKeyResource(String location, Path path, Duration reloadInterval, Predicate<PrivateKey> acceptReload, PrivateKey key) {
+        this.location = location;
+        this.path = path;
+        this.reloadIntervalNanos = reloadInterval.toNanos();
+        this.acceptReload = acceptReload;
+        this.key = key;
+        this.nextCheck = System.nanoTime() + reloadIntervalNanos;
+    }
+
+    /**
+     * Read a private key once from its location.
+     *
+     * @param location       the {@code file:} or {@code classpath:} location of the PEM file.
+     * @param reloadInterval how often to look for a modified file, zero or negative to never reload.
+     * @param acceptReload   whether a re-read key may replace the current one.
+     * @return the loaded key.
+     * @throws IOException              if the PEM file cannot be read.
+     * @throws GeneralSecurityException if the PEM file does not hold a supported private key.
+     */
+    public static PrivateKeyResource load(String location, Duration reloadInterval, Predicate<PrivateKey> acceptReload)
+        throws IOException, GeneralSecurityException {
+        if (location.startsWith(PemKeys.FILE_PREFIX)) {
+            Path path = Paths.get(location.substring(PemKeys.FILE_PREFIX.length()));
+            FileTime lastModified = Files.getLastModifiedTime(path);
+            PrivateKey key = PemKeys.decodePrivateKey(PemKeys.read(location));
+            boolean reload = !(reloadInterval.isNegative() || reloadInterval.isZero());
+            PrivateKeyResource resource = new PrivateKeyResource(location, reload ? path : null, reloadInterval, acceptReload, key);
+            resource.lastModified = lastModified;
+            return resource;
+        }
+        return new PrivateKeyResource(location, null, Duration.ZERO, acceptReload, PemKeys.decodePrivateKey(PemKeys.read(location)));
+    }
+
+    /**
+     * Wrap a key that never changes.
+     */
+    public static PrivateKeyResource of(PrivateKey key) {
+        return new PrivateKeyResource(null, null, Duration.ZERO, k -> false, key);
+    }
+
+    /**
+     * @return the current key, re-read first if the file changed since the last check.
+     */
+    public PrivateKey get() {
+        if (path != null && System.nanoTime() - nextCheck >= 0) {
+            reloadIfModified();
+        }
+        return key;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    private synchronized void reloadIfModified() {
+        long now = System.nanoTime();
+        if (now - nextCheck < 0) {
+            return;
+        }
+        nextCheck = now + reloadIntervalNanos;
+        try {
+            // Read the time before the content, so that a write racing with the read is picked up next time
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (modified.equals(lastModified)) {
+                return;
+            }
+            PrivateKey reloaded = PemKeys.decodePrivateKey(PemKeys.read(location));
+            lastModified = modified;
+            if (acceptReload.test(reloaded)) {
+                key = reloaded;
+                log.info("Reloaded private key from {}", location);
+            } else {
+                log.error("Ignoring the private key reloaded from {}: it does not match the configuration", location);
+            }
+        } catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+            log.warn("Could not reload private key from {}, keeping the current one: {}", location, e.getMessage());
+        }
+    }
+}
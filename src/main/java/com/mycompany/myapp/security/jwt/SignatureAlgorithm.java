@@ -0,0 +1,49 @@
+package com.mycompany.myapp.security.jwt;
+
+import java.util.Arrays;
+
+/**
+ * JWS algorithms supported by {@link TokenProvider}, with the JCA names used to sign with them.
+ * <p>
+ * ECDSA signatures use the IEEE P1363 format (fixed-size {@code R || S}) required by JWS, rather than DER.
+ */
+public enum SignatureAlgorithm {
+    RS256("RS256", "SHA256withRSA", "RSA"),
+    RS384("RS384", "SHA384withRSA", "RSA"),
+    RS512("RS512", "SHA512withRSA", "RSA"),
+    ES256("ES256", "SHA256withECDSAinP1363Format", "EC"),
+    ES384("ES384", "SHA384withECDSAinP1363Format", "EC"),
+    ES512("ES512", "SHA512withECDSAinP1363Format", "EC"),
+    EDDSA("EdDSA", "EdDSA", "EdDSA");
+
+    private final String jwsName;
+
+    private final String jcaName;
+
+    private final String keyType;
+
+    SignatureAlgorithm(String jwsName, String jcaName, String keyType) {
+        this.jwsName = jwsName;
+        this.jcaName = jcaName;
+        this.keyType = keyType;
+    }
+
+    public String jwsName() {
+        return jwsName;
+    }
+
+    public String jcaName() {
+        return jcaName;
+    }
+
+    public String keyType() {
+        return keyType;
+    }
+
+    public static SignatureAlgorithm fromJwsName(String jwsName) {
+        return Arrays.stream(values())
+            .filter(algorithm -> algorithm.jwsName.equals(jwsName))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unsupported JWT signature algorithm: " + jwsName));
+    }
+}
@@ -1,24 +1,21 @@
 package com.mycompany.myapp.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.mycompany.myapp.config.JHipsterProperties;
 import io.quarkus.security.runtime.QuarkusSecurityIdentity;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import java.io.InputStream;
-import java.nio.charset.Charset;
-import java.security.Key;
-import java.security.KeyFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.PrivateKey;
-import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.Signature;
+import java.time.Clock;
 import java.util.Base64;
-import java.util.Date;
-import java.util.UUID;
-import org.jose4j.jws.AlgorithmIdentifiers;
-import org.jose4j.jws.JsonWebSignature;
-import org.jose4j.jwt.JwtClaims;
-import org.jose4j.jwt.NumericDate;
-import org.jose4j.lang.JoseException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TreeSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,7 +27,13 @@ public class TokenProvider {
     private static final String AUTHORITIES_KEY = "auth"; // Claim JHiptser front-end uses
     public static final String GROUPS_KEY = "groups"; // Default claim for MP-JWT
 
-    private final Key key;
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtKeyring keyring;
+
+    private final SignatureAlgorithm algorithm;
+
+    private volatile SigningKey signingKey;
 
     private final String issuer;
 
@@ -38,78 +41,211 @@ public class TokenProvider {
 
     private final long tokenValidityInMillisecondsForRememberMe;
 
+    private final Cache<String, String> tokenCache;
+
+    private final Clock clock;
+
     @Inject
-    public TokenProvider(JHipsterProperties jHipsterProperties) throws Exception {
-        this.key = readPrivateKey(jHipsterProperties.security().authentication().jwt().privateKey().location());
-        this.issuer = jHipsterProperties.security().authentication().jwt().issuer();
-        this.tokenValidityInMilliseconds = jHipsterProperties.security().authentication().jwt().tokenValidityInSeconds() * 1000;
-        this.tokenValidityInMillisecondsForRememberMe = jHipsterProperties
-            .security()
-            .authentication()
-            .jwt()
-            .tokenValidityInSecondsForRememberMe() *
-        1000;
+    public TokenProvider(JHipsterProperties jHipsterProperties, JwtKeyring keyring) {
+        this(jHipsterProperties, keyring, Clock.systemUTC());
+    }
+
+    TokenProvider(JHipsterProperties jHipsterProperties, JwtKeyring keyring, Clock clock) {
+        this(
+            keyring,
+            jHipsterProperties.security().authentication().jwt().issuer(),
+            jHipsterProperties.security().authentication().jwt().tokenValidityInSeconds() * 1000,
+            jHipsterProperties.security().authentication().jwt().tokenValidityInSecondsForRememberMe() * 1000,
+            tokenCache(jHipsterProperties.security().authentication().jwt().tokenCache()),
+            clock
+        );
+    }
+
+    TokenProvider(
+        PrivateKey key,
+        SignatureAlgorithm algorithm,
+        String issuer,
+        long tokenValidityInMilliseconds,
+        long tokenValidityInMillisecondsForRememberMe,
+        Cache<String, String> tokenCache
+    ) throws GeneralSecurityException {
+        this(
+            JwtKeyring.of(key, algorithm),
+            issuer,
+            tokenValidityInMilliseconds,
+            tokenValidityInMillisecondsForRememberMe,
+            tokenCache,
+            Clock.systemUTC()
+        );
+    }
+
+    TokenProvider(
+        JwtKeyring keyring,
+        String issuer,
+        long tokenValidityInMilliseconds,
+        long tokenValidityInMillisecondsForRememberMe,
+        Cache<String, String> tokenCache,
+        Clock clock
+    ) {
+        this.keyring = keyring;
+        this.algorithm = keyring.getAlgorithm();
+        this.issuer = issuer;
+        this.tokenValidityInMilliseconds = tokenValidityInMilliseconds;
+        this.tokenValidityInMillisecondsForRememberMe = tokenValidityInMillisecondsForRememberMe;
+        this.tokenCache = tokenCache;
+        this.clock = clock;
+        this.signingKey = newSigningKey(keyring.current());
+        log.debug("Signing tokens with {} and key id {}", algorithm.jwsName(), signingKey.keyId);
+    }
+
+    private static Cache<String, String> tokenCache(JHipsterProperties.Security.Authentication.Jwt.TokenCache properties) {
+        if (!properties.enabled()) {
+            return null;
+        }
+        return Caffeine.newBuilder().expireAfterWrite(properties.timeToLive()).maximumSize(properties.maximumSize()).build();
     }
 
     @PostConstruct
     void init() throws Exception {}
 
+    public String getKeyId() {
+        return currentSigningKey().keyId;
+    }
+
+    /**
+     * @return the signing key, switched to a new one when the keyring signing key was rotated.
+     */
+    private SigningKey currentSigningKey() {
+        SigningKey current = signingKey;
+        JwtKeyring.Keys keys = keyring.current();
+        if (keys.signingKey() == current.key) {
+            return current;
+        }
+        synchronized (this) {
+            if (signingKey.key != keys.signingKey()) {
+                signingKey = newSigningKey(keys);
+                if (tokenCache != null) {
+                    tokenCache.invalidateAll();
+                }
+                log.info("Signing tokens with rotated key id {}", signingKey.keyId);
+            }
+            return signingKey;
+        }
+    }
+
+    private SigningKey newSigningKey(JwtKeyring.Keys keys) {
+        return new SigningKey(keys.signingKey(), keys.signingKeyId(), algorithm);
+    }
+
+    /**
+     * Create a signed token for an identity. When the token cache is enabled, an identity asking again
+     * within the cache time-to-live gets the token it was already given.
+     *
+     * @param identity   the authenticated identity.
+     * @param rememberMe whether to use the longer remember-me validity.
+     * @return the compact serialization of the signed token.
+     */
     public String createToken(QuarkusSecurityIdentity identity, boolean rememberMe) {
-        String authorities = String.join(", ", identity.getRoles());
-        long now = (new Date()).getTime();
-        Date validity;
-        if (rememberMe) {
-            validity = new Date(now + tokenValidityInMillisecondsForRememberMe);
-        } else {
-            validity = new Date(now + tokenValidityInMilliseconds);
+        if (tokenCache == null) {
+            return signToken(identity, rememberMe);
         }
+        String cacheKey = identity.getPrincipal().getName() + '\n' + rememberMe + '\n' + new TreeSet<>(identity.getRoles());
+        return tokenCache.get(cacheKey, k -> signToken(identity, rememberMe));
+    }
 
-        JwtClaims claims = new JwtClaims();
-        claims.setSubject(identity.getPrincipal().getName());
-        claims.setClaim(AUTHORITIES_KEY, authorities);
-        claims.setClaim(GROUPS_KEY, identity.getRoles());
-        claims.setIssuedAt(NumericDate.fromMilliseconds(now));
-        claims.setIssuer(this.issuer);
-        claims.setExpirationTime(NumericDate.fromMilliseconds(validity.getTime()));
-
-        JsonWebSignature jws = new JsonWebSignature();
-        jws.setPayload(claims.toJson());
-        jws.setKey(key);
-        jws.setKeyIdHeaderValue(UUID.randomUUID().toString());
-        jws.setHeader("typ", "JWT");
-        jws.setAlgorithmHeaderValue(AlgorithmIdentifiers.RSA_USING_SHA256);
+    private String signToken(QuarkusSecurityIdentity identity, boolean rememberMe) {
+        long now = clock.millis();
+        long validity = now + (rememberMe ? tokenValidityInMillisecondsForRememberMe : tokenValidityInMilliseconds);
+
+        String claims = claimsJson(identity.getPrincipal().getName(), identity.getRoles(), now, validity);
+        SigningKey current = currentSigningKey();
+        String signingInput = current.encodedHeader + '.' + encode(claims);
         try {
-            return jws.getCompactSerialization();
-        } catch (JoseException e) {
+            Signature signer = current.signature.get();
+            signer.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + '.' + BASE64_URL.encodeToString(signer.sign());
+        } catch (GeneralSecurityException e) {
             throw new RuntimeException(e);
         }
     }
 
-    public static PrivateKey readPrivateKey(final String pemResName) throws Exception {
-        InputStream contentIS = TokenProvider.class.getResourceAsStream(pemResName);
-        byte[] tmp = new byte[4096];
-        int length = contentIS.read(tmp);
-        return decodePrivateKey(new String(tmp, 0, length, Charset.forName("UTF-8")));
+    /**
+     * Serialize the claims directly, rather than through a {@code JwtClaims} map.
+     */
+    private String claimsJson(String subject, Set<String> roles, long issuedAt, long expiration) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"sub\":").append(jsonString(subject));
+        json.append(",\"" + AUTHORITIES_KEY + "\":").append(jsonString(String.join(", ", roles)));
+        json.append(",\"" + GROUPS_KEY + "\":[");
+        for (Iterator<String> it = roles.iterator(); it.hasNext();) {
+            json.append(jsonString(it.next()));
+            if (it.hasNext()) {
+                json.append(',');
+            }
+        }
+        json.append("],\"iat\":").append(issuedAt / 1000);
+        json.append(",\"iss\":").append(jsonString(issuer));
+        json.append(",\"exp\":").append(expiration / 1000);
+        return json.append('}').toString();
     }
 
-    public static PrivateKey decodePrivateKey(final String pemEncoded) throws Exception {
-        byte[] encodedBytes = toEncodedBytes(pemEncoded);
+    /**
+     * A private key with everything derived from it: its id, the encoded token header and the per-thread
+     * initialized signatures.
+     */
+    private static final class SigningKey {
 
-        PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(encodedBytes);
-        KeyFactory kf = KeyFactory.getInstance("RSA");
-        return kf.generatePrivate(keySpec);
+        private final PrivateKey key;
+
+        private final String keyId;
+
+        private final String encodedHeader;
+
+        private final ThreadLocal<Signature> signature;
+
+        private SigningKey(PrivateKey key, String keyId, SignatureAlgorithm algorithm) {
+            this.key = key;
+            this.keyId = keyId;
+            this.encodedHeader = encode(
+                "{\"kid\":" + jsonString(keyId) + ",\"typ\":\"JWT\",\"alg\":" + jsonString(algorithm.jwsName()) + "}"
+            );
+            this.signature = ThreadLocal.withInitial(() -> newSignature(key, algorithm));
+        }
+
+        private static Signature newSignature(PrivateKey key, SignatureAlgorithm algorithm) {
+            try {
+                Signature instance = Signature.getInstance(algorithm.jcaName());
+                instance.initSign(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException(e);
+            }
+        }
     }
 
-    private static byte[] toEncodedBytes(final String pemEncoded) {
-        final String normalizedPem = removeBeginEnd(pemEncoded);
-        return Base64.getDecoder().decode(normalizedPem);
+    private static String encode(String json) {
+        return BASE64_URL.encodeToString(json.getBytes(StandardCharsets.UTF_8));
     }
 
-    private static String removeBeginEnd(String pem) {
-        pem = pem.replaceAll("-----BEGIN (.*)-----", "");
-        pem = pem.replaceAll("-----END (.*)----", "");
-        pem = pem.replaceAll("\r\n", "");
-        pem = pem.replaceAll("\n", "");
-        return pem.trim();
+    private static String jsonString(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
     }
 }
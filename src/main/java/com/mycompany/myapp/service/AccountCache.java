@@ -0,0 +1,135 @@
+package com.mycompany.myapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mycompany.myapp.config.JHipsterProperties;
+import com.mycompany.myapp.service.dto.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache of the serialized account of each user, by login, as returned by {@code GET /api/account}, which the
+ * client calls on every route change.
+ * <p>
+ * An entry holds the JSON of the account and a tag of it, so that a cached account is returned without a query
+ * nor serialization, and an unchanged one with {@code 304 (Not Modified)}. {@code UserService} invalidates the
+ * entry of every user it changes, and again once the transaction completes. Entries are loaded with the lock of
+ * their key held, so that an account read before the change commits is dropped by that second invalidation.
+ * Changes made to the users table outside of {@code UserService} show after {@code time-to-live}.
+ */
+@ApplicationScoped
+public class AccountCache {
+
+    /**
+     * @param json the account, serialized.
+     * @param etag a tag of the serialized account.
+     */
+    public record Account(byte[] json, String etag) {}
+
+    private final Jsonb jsonb;
+
+    private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    /** {@code null} when disabled. */
+    private final Cache<String, Account> cache;
+
+    @Inject
+    public AccountCache(
+        Jsonb jsonb,
+        JHipsterProperties jHipsterProperties,
+        MeterRegistry meterRegistry,
+        TransactionSynchronizationRegistry transactionSynchronizationRegistry
+    ) {
+        this.jsonb = jsonb;
+        this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        JHipsterProperties.Account.Cache properties = jHipsterProperties.account().cache();
+        if (properties.enabled()) {
+            this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.timeToLive())
+                .maximumSize(properties.maximumSize())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "accounts");
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * @param login  the login of the user.
+     * @param loader loads the account of a login when it is not cached.
+     * @return the account, empty if the loader found none.
+     */
+    public Optional<Account> get(String login, Function<String, Optional<UserDTO>> loader) {
+        Function<String, Account> load = key -> loader.apply(key).map(this::serialize).orElse(null);
+        if (cache == null) {
+            return Optional.ofNullable(load.apply(login));
+        }
+        return Optional.ofNullable(cache.get(login.toLowerCase(Locale.ENGLISH), load));
+    }
+
+    /**
+     * Drop the account of a user. When called inside a transaction, it is dropped again once it completes.
+     *
+     * @param login the login of the user.
+     */
+    public void invalidate(String login) {
+        if (cache == null || login == null) {
+            return;
+        }
+        String key = login.toLowerCase(Locale.ENGLISH);
+        cache.invalidate(key);
+        afterCompletion(() -> cache.invalidate(key));
+    }
+
+    /**
+     * Drop every account, for changes to many users at once.
+     */
+    public void invalidateAll() {
+        if (cache == null) {
+            return;
+        }
+        cache.invalidateAll();
+        afterCompletion(cache::invalidateAll);
+    }
+
+    private void afterCompletion(Runnable action) {
+        if (transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactionSynchronizationRegistry.registerInterposedSynchronization(
+                new Synchronization() {
+                    @Override
+                    public void beforeCompletion() {}
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        action.run();
+                    }
+                }
+            );
+        }
+    }
+
+    private Account serialize(UserDTO account) {
+        byte[] json = jsonb.toJson(account).getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return new Account(json, Base64.getUrlEncoder().withoutPadding().encodeToString(digest));
+        } catch (NoSuchAlgorithmException e) {
+            // can't really happen
+            throw new RuntimeException(e);
+        }
+    }
+}
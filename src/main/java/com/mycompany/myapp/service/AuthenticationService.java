@@ -1,15 +1,25 @@
 package com.mycompany.myapp.service;
 
 import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.security.AsyncPasswordHasher;
 import com.mycompany.myapp.security.BCryptPasswordHasher;
+import com.mycompany.myapp.security.KnownLogins;
+import com.mycompany.myapp.security.RandomUtil;
 import com.mycompany.myapp.security.UserNotActivatedException;
 import com.mycompany.myapp.security.UsernameNotFoundException;
+import com.mycompany.myapp.security.VerifiedCredentialCache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.security.AuthenticationFailedException;
 import io.quarkus.security.runtime.QuarkusPrincipal;
 import io.quarkus.security.runtime.QuarkusSecurityIdentity;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,37 +32,117 @@ public class AuthenticationService {
     public static final String emailValidator =
         "^[a-zA-Z0-9.!#$%&'*+/=?^_`{|}~-]+@[a-zA-Z0-9](?:[a-zA-Z0-9-]{0,61}[a-zA-Z0-9])?(?:\\.[a-zA-Z0-9](?:[a-zA-Z0-9-]{0,61}[a-zA-Z0-9])?)*$";
 
-    final BCryptPasswordHasher passwordHasher;
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(emailValidator);
+
+    final AsyncPasswordHasher passwordHasher;
+
+    final VerifiedCredentialCache credentialCache;
+
+    final KnownLogins knownLogins;
+
+    /** Checked against for unknown users, so that they take as long to reject as wrong passwords. */
+    private final String dummyHash;
 
     @Inject
-    public AuthenticationService(BCryptPasswordHasher passwordHasher) {
+    public AuthenticationService(
+        AsyncPasswordHasher passwordHasher,
+        VerifiedCredentialCache credentialCache,
+        KnownLogins knownLogins,
+        BCryptPasswordHasher bCryptPasswordHasher
+    ) {
         this.passwordHasher = passwordHasher;
+        this.credentialCache = credentialCache;
+        this.knownLogins = knownLogins;
+        this.dummyHash = bCryptPasswordHasher.hash(RandomUtil.generatePassword());
     }
 
-    public QuarkusSecurityIdentity authenticate(String login, String password) {
-        User user = loadByUsername(login);
+    /**
+     * Authenticate a user. The user lookup runs on the caller thread, the password check runs on the
+     * password hashing pool. Credentials found in the {@link VerifiedCredentialCache} skip both. Logins that
+     * {@link KnownLogins} knows no user has are rejected without a lookup; unknown users are still checked
+     * against a dummy hash, so that they cannot be told from wrong passwords by the response time.
+     * <p>
+     * When the stored hash was computed with another cost than the configured one, it is replaced in the
+     * background once the password has been verified; the login response does not wait for it.
+     *
+     * @param login    the login or email of the user.
+     * @param password the clear text password.
+     * @return a stage completed with the identity, or failed with an {@link AuthenticationFailedException}.
+     */
+    public CompletionStage<QuarkusSecurityIdentity> authenticate(String login, String password) {
+        Optional<QuarkusSecurityIdentity> cachedIdentity = credentialCache.get(login, password);
+        if (cachedIdentity.isPresent()) {
+            log.debug("Authenticated {} from the verified credential cache", login);
+            return CompletableFuture.completedFuture(cachedIdentity.get());
+        }
+        long generation = credentialCache.generation();
+        User user;
+        try {
+            user = loadByUsername(login);
+        } catch (UsernameNotFoundException e) {
+            return passwordHasher.checkPassword(password, dummyHash).thenApply(matches -> {
+                throw e;
+            });
+        }
         if (!user.activated) {
             throw new UserNotActivatedException("User " + login + " was not activated");
         }
-        if (passwordHasher.checkPassword(password, user.password)) {
-            return createQuarkusSecurityIdentity(user);
-        }
-        log.debug("Authentication failed: password does not match stored value");
-        throw new AuthenticationFailedException("Authentication failed: password does not match stored value");
+        return passwordHasher
+            .checkPassword(password, user.password)
+            .thenApply(matches -> {
+                if (matches) {
+                    if (passwordHasher.needsRehash(user.password)) {
+                        rehashPassword(user.id, user.password, password);
+                    }
+                    QuarkusSecurityIdentity identity = createQuarkusSecurityIdentity(user);
+                    credentialCache.put(login, password, identity, generation);
+                    return identity;
+                }
+                log.debug("Authentication failed: password does not match stored value");
+                throw new AuthenticationFailedException("Authentication failed: password does not match stored value");
+            });
+    }
+
+    private void rehashPassword(Long id, String currentEncryptedPassword, String password) {
+        passwordHasher
+            .hash(password)
+            .thenAcceptAsync(
+                encryptedPassword ->
+                    QuarkusTransaction.requiringNew()
+                        .run(() ->
+                            User.<User>findByIdOptional(id)
+                                .filter(user -> currentEncryptedPassword.equals(user.password))
+                                .ifPresent(user -> {
+                                    user.password = encryptedPassword;
+                                    log.debug("Upgraded password hash for User: {}", user);
+                                })
+                        ),
+                Infrastructure.getDefaultWorkerPool()
+            )
+            .exceptionally(throwable -> {
+                log.debug("Password hash upgrade skipped for user {}", id, throwable);
+                return null;
+            });
     }
 
     private User loadByUsername(String login) {
         log.debug("Authenticating {}", login);
 
-        if (login.matches(emailValidator)) {
-            return User.findOneWithAuthoritiesByEmailIgnoreCase(login).orElseThrow(
-                () -> new UsernameNotFoundException("User with email " + login + " was not found in the database")
-            );
+        if (!knownLogins.mightExist(login)) {
+            throw new UsernameNotFoundException("User with login or email " + login + " is not known");
+        }
+        // Logins may look like emails too, so an email-like value is looked up both ways in one query
+        if (EMAIL_PATTERN.matcher(login).matches()) {
+            return User.findOneWithAuthoritiesByLoginOrEmailIgnoreCase(login).orElseThrow(() -> {
+                knownLogins.recordFalsePositive();
+                return new UsernameNotFoundException("User with login or email " + login + " was not found in the database");
+            });
         }
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
-        return User.findOneWithAuthoritiesByLogin(lowercaseLogin).orElseThrow(
-            () -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database")
-        );
+        return User.findOneWithAuthoritiesByLogin(lowercaseLogin).orElseThrow(() -> {
+            knownLogins.recordFalsePositive();
+            return new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database");
+        });
     }
 
     private QuarkusSecurityIdentity createQuarkusSecurityIdentity(User user) {
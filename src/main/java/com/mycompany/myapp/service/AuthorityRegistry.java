@@ -0,0 +1,91 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Authority;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The names of the authorities, loaded at startup and kept as an immutable snapshot.
+ * <p>
+ * Authorities only change through database migrations, so their names are read once instead of on every user
+ * created or updated, and every listing of the authorities. Names are resolved to entity references with
+ * {@code getReference}, which does not query the database. After changing the {@code jhi_authority} table of a
+ * running application, {@link #refresh()} it, through {@code POST /api/authorities/refresh}.
+ */
+@ApplicationScoped
+public class AuthorityRegistry {
+
+    /**
+     * @param names   the sorted names of the authorities.
+     * @param nameSet the same names, for lookups.
+     * @param etag    a tag of the names, changing when they do.
+     */
+    public record Snapshot(List<String> names, Set<String> nameSet, String etag) {
+        static Snapshot of(List<String> names) {
+            List<String> sorted = names.stream().sorted().toList();
+            return new Snapshot(sorted, Set.copyOf(sorted), Integer.toHexString(sorted.hashCode()));
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(AuthorityRegistry.class);
+
+    /** {@code null} until loaded. */
+    private volatile Snapshot snapshot;
+
+    void onStart(@Observes StartupEvent event) {
+        refresh();
+    }
+
+    /**
+     * Replace the snapshot by one read from the database.
+     *
+     * @return the new snapshot.
+     */
+    public synchronized Snapshot refresh() {
+        List<String> names = QuarkusTransaction.requiringNew()
+            .call(() -> Authority.<Authority>streamAll().map(authority -> authority.name).collect(Collectors.toList()));
+        snapshot = Snapshot.of(names);
+        log.debug("Loaded authorities {}", snapshot.names());
+        return snapshot;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * @return the sorted names of the authorities.
+     */
+    public List<String> names() {
+        return snapshot().names();
+    }
+
+    /**
+     * @param name the name of an authority.
+     * @return a reference to the authority, empty if there is none with this name.
+     */
+    public Optional<Authority> resolve(String name) {
+        if (name == null || !snapshot().nameSet().contains(name)) {
+            return Optional.empty();
+        }
+        return Optional.of(Authority.getEntityManager().getReference(Authority.class, name));
+    }
+
+    /**
+     * @param names the names of authorities.
+     * @return references to the authorities, without the names of none.
+     */
+    public Set<Authority> resolve(Collection<String> names) {
+        return names.stream().map(this::resolve).flatMap(Optional::stream).collect(Collectors.toSet());
+    }
+}
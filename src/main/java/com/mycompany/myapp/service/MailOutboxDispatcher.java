@@ -0,0 +1,155 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.JHipsterProperties;
+import com.mycompany.myapp.domain.OutboxMail;
+import com.mycompany.myapp.service.dto.UserMailDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.mailer.Mail;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends the mails of the {@link OutboxMail outbox}, so that requests changing a user never wait for the mail server.
+ * <p>
+ * Due mails are claimed {@code jhipster.mail.outbox.batch-size} at a time, by pushing their next attempt past a
+ * lease: a crashed sender therefore delays them, but never loses them. A batch is rendered in one pass, then sent
+ * concurrently over the mailer connection pool. Sent mails are deleted; failed ones are retried with an exponential
+ * backoff and given up on after {@code jhipster.mail.outbox.max-attempts}, their last error kept for inspection
+ * and their key cleared, as it is the clear activation or reset key.
+ */
+@ApplicationScoped
+public class MailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final MailService mailService;
+
+    private final JHipsterProperties.Mail.Outbox properties;
+
+    private final AtomicLong depth = new AtomicLong();
+
+    private final Timer sendLatency;
+
+    private final Timer deliveryDelay;
+
+    private final Counter failed;
+
+    private final Counter abandoned;
+
+    @Inject
+    public MailOutboxDispatcher(MailService mailService, JHipsterProperties jHipsterProperties, MeterRegistry meterRegistry) {
+        this.mailService = mailService;
+        this.properties = jHipsterProperties.mail().outbox();
+        Gauge.builder("mail.outbox.depth", depth, AtomicLong::get)
+            .description("Mails waiting in the outbox, as of the last dispatch")
+            .register(meterRegistry);
+        this.sendLatency = Timer.builder("mail.outbox.send").description("Time to send a mail to the mail server").register(meterRegistry);
+        this.deliveryDelay = Timer.builder("mail.outbox.delivery.delay")
+            .description("Time from the queueing of a mail to its successful sending")
+            .register(meterRegistry);
+        this.failed = Counter.builder("mail.outbox.failed").description("Mail sending attempts that failed").register(meterRegistry);
+        this.abandoned = Counter.builder("mail.outbox.abandoned")
+            .description("Mails given up on after the maximum number of attempts")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Send every due mail, batch after batch, then refresh the outbox depth.
+     */
+    @Scheduled(every = "{jhipster.mail.outbox.poll-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public void dispatch() {
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == properties.batchSize());
+        depth.set(QuarkusTransaction.requiringNew().call(OutboxMail::countByNextAttemptDateNotNull));
+    }
+
+    private int dispatchBatch() {
+        Instant now = Instant.now();
+        List<OutboxMail> mails = QuarkusTransaction.requiringNew()
+            .call(() -> {
+                List<OutboxMail> due = OutboxMail.findAllByNextAttemptDateBefore(now, properties.batchSize());
+                due.forEach(mail -> mail.nextAttemptDate = now.plus(properties.lease()));
+                return due;
+            });
+        if (mails.isEmpty()) {
+            return 0;
+        }
+
+        List<Mail> rendered = mailService.render(mails.stream().map(UserMailDTO::of).toList());
+        List<CompletableFuture<Throwable>> results = new ArrayList<>(mails.size());
+        for (Mail mail : rendered) {
+            long start = System.nanoTime();
+            results.add(
+                mailService
+                    .send(mail)
+                    .toCompletableFuture()
+                    .handle((it, throwable) -> {
+                        sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        return throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                    })
+            );
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+        List<Long> sent = new ArrayList<>(mails.size());
+        Map<Long, Throwable> failures = new HashMap<>();
+        Instant sentAt = Instant.now();
+        for (int i = 0; i < mails.size(); i++) {
+            OutboxMail mail = mails.get(i);
+            Throwable failure = results.get(i).join();
+            if (failure == null) {
+                sent.add(mail.id);
+                deliveryDelay.record(Duration.between(mail.createdDate, sentAt));
+            } else {
+                failures.put(mail.id, failure);
+            }
+        }
+        QuarkusTransaction.requiringNew()
+            .run(() -> {
+                if (!sent.isEmpty()) {
+                    OutboxMail.deleteByIdIn(sent);
+                }
+                failures.forEach((id, failure) -> OutboxMail.<OutboxMail>findByIdOptional(id).ifPresent(mail -> retryLater(mail, failure)));
+            });
+        log.debug("Sent {} outbox mails, {} failed", sent.size(), failures.size());
+        return mails.size();
+    }
+
+    private void retryLater(OutboxMail mail, Throwable failure) {
+        failed.increment();
+        mail.attempts++;
+        String error = String.valueOf(failure.getMessage());
+        mail.lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        if (mail.attempts >= properties.maxAttempts()) {
+            mail.nextAttemptDate = null;
+            mail.mailKey = null;
+            abandoned.increment();
+            log.error("Giving up on {} mail to '{}' after {} attempts: {}", mail.type, mail.recipient, mail.attempts, error);
+        } else {
+            Duration backoff = properties.initialBackoff().multipliedBy(1L << Math.min(mail.attempts - 1, 20));
+            mail.nextAttemptDate = Instant.now().plus(backoff.compareTo(properties.maxBackoff()) > 0 ? properties.maxBackoff() : backoff);
+            log.warn("Could not send {} mail to '{}', attempt {}: {}", mail.type, mail.recipient, mail.attempts, error);
+        }
+    }
+}
@@ -1,17 +1,33 @@
 package com.mycompany.myapp.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mycompany.myapp.config.Constants;
 import com.mycompany.myapp.config.JHipsterProperties;
+import com.mycompany.myapp.domain.OutboxMail;
 import com.mycompany.myapp.domain.User;
-import io.quarkus.mailer.MailTemplate;
+import com.mycompany.myapp.service.dto.UserMailDTO;
+import io.quarkus.mailer.Mail;
+import io.quarkus.mailer.reactive.ReactiveMailer;
 import io.quarkus.qute.Location;
+import io.quarkus.qute.Template;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Service for sending emails.
+ * <p>
+ * The templates are parsed once, at build time, and rendered with a {@link UserMailDTO} and the {@link MailTexts}
+ * of the language of the user. The texts of a language are read from the {@code i18n} bundles the first time
+ * it is used, then kept.
  */
 @ApplicationScoped
 public class MailService {
@@ -22,57 +38,104 @@ public class MailService {
 
     private static final String BASE_URL = "baseUrl";
 
-    final JHipsterProperties jHipsterProperties;
+    private static final String TEXTS = "texts";
 
-    final MailTemplate activationEmail;
+    private static final String GREETING = "greeting";
 
-    final MailTemplate creationEmail;
+    /** Bounds the texts kept, as the language of a user is free text. */
+    private static final int MAX_LANGUAGES = 100;
 
-    final MailTemplate passwordResetEmail;
+    final String baseUrl;
+
+    final ReactiveMailer reactiveMailer;
+
+    final Map<OutboxMail.Type, Template> templates = new EnumMap<>(OutboxMail.Type.class);
+
+    private final Cache<String, Map<OutboxMail.Type, MailTexts>> textsByLanguage = Caffeine.newBuilder().maximumSize(MAX_LANGUAGES).build();
 
     @Inject
     public MailService(
         JHipsterProperties jHipsterProperties,
-        @Location("mail/activationEmail") MailTemplate activationEmail,
-        @Location("mail/creationEmail") MailTemplate creationEmail,
-        @Location("mail/passwordResetEmail") MailTemplate passwordResetEmail
+        ReactiveMailer reactiveMailer,
+        @Location("mail/activationEmail") Template activationEmail,
+        @Location("mail/creationEmail") Template creationEmail,
+        @Location("mail/passwordResetEmail") Template passwordResetEmail
     ) {
-        this.jHipsterProperties = jHipsterProperties;
-        this.activationEmail = activationEmail;
-        this.creationEmail = creationEmail;
-        this.passwordResetEmail = passwordResetEmail;
+        this(jHipsterProperties.mail().baseUrl(), reactiveMailer, activationEmail, creationEmail, passwordResetEmail);
+    }
+
+    MailService(String baseUrl, ReactiveMailer reactiveMailer, Template activationEmail, Template creationEmail, Template passwordResetEmail) {
+        this.baseUrl = baseUrl;
+        this.reactiveMailer = reactiveMailer;
+        templates.put(OutboxMail.Type.ACTIVATION, activationEmail);
+        templates.put(OutboxMail.Type.CREATION, creationEmail);
+        templates.put(OutboxMail.Type.PASSWORD_RESET, passwordResetEmail);
+    }
+
+    /**
+     * Render mails in one pass: the texts of each language are looked up once for the whole batch.
+     *
+     * @param mails the mails to render.
+     * @return the rendered mails, in the same order.
+     */
+    public List<Mail> render(List<UserMailDTO> mails) {
+        Map<String, Map<OutboxMail.Type, MailTexts>> texts = new HashMap<>();
+        List<Mail> rendered = new ArrayList<>(mails.size());
+        for (UserMailDTO mail : mails) {
+            String lang = mail.langKey() == null ? Constants.DEFAULT_LANGUAGE : mail.langKey();
+            rendered.add(render(mail, texts.computeIfAbsent(lang, this::texts).get(mail.type())));
+        }
+        return rendered;
+    }
+
+    Mail render(UserMailDTO mail, MailTexts texts) {
+        String html = templates
+            .get(mail.type())
+            .data(USER, mail)
+            .data(TEXTS, texts)
+            .data(GREETING, texts.greeting(mail.login()))
+            .data(BASE_URL, baseUrl)
+            .render();
+        return Mail.withHtml(mail.email(), texts.title(), html);
+    }
+
+    private Map<OutboxMail.Type, MailTexts> texts(String lang) {
+        return textsByLanguage.get(lang, MailTexts::load);
+    }
+
+    /**
+     * Send a rendered mail.
+     *
+     * @param mail the mail.
+     * @return a stage failed if the mail could not be sent, for it to be retried.
+     */
+    public CompletionStage<Void> send(Mail mail) {
+        return reactiveMailer.send(mail).subscribeAsCompletionStage();
     }
 
-    public CompletionStage<Void> sendEmailFromTemplate(User user, MailTemplate template, String subject) {
-        return template
-            .to(user.email)
-            .subject(subject)
-            .data(BASE_URL, jHipsterProperties.mail().baseUrl())
-            .data(USER, user)
-            .send()
-            .subscribeAsCompletionStage()
-            .handle((it, throwable) -> {
-                if (throwable != null) {
-                    log.warn("Email could not be sent to user '{}'", user.email, throwable);
-                } else {
-                    log.debug("Sent email to User '{}'", user.email);
-                }
-                return null;
-            });
+    public CompletionStage<Void> sendEmailFromTemplate(User user, OutboxMail.Type type, String key) {
+        return send(render(List.of(UserMailDTO.of(type, user, key))).get(0)).handle((it, throwable) -> {
+            if (throwable != null) {
+                log.warn("Email could not be sent to user '{}'", user.email, throwable);
+            } else {
+                log.debug("Sent email to User '{}'", user.email);
+            }
+            return null;
+        });
     }
 
-    public CompletionStage<Void> sendActivationEmail(User user) {
+    public CompletionStage<Void> sendActivationEmail(User user, String activationKey) {
         log.debug("Sending activation email to '{}'", user.email);
-        return sendEmailFromTemplate(user, activationEmail, "jhipsterSampleApplication account activation is required");
+        return sendEmailFromTemplate(user, OutboxMail.Type.ACTIVATION, activationKey);
     }
 
-    public CompletionStage<Void> sendCreationEmail(User user) {
+    public CompletionStage<Void> sendCreationEmail(User user, String resetKey) {
         log.debug("Sending creation email to '{}'", user.email);
-        return sendEmailFromTemplate(user, creationEmail, "jhipsterSampleApplication account activation is required");
+        return sendEmailFromTemplate(user, OutboxMail.Type.CREATION, resetKey);
     }
 
-    public CompletionStage<Void> sendPasswordResetMail(User user) {
+    public CompletionStage<Void> sendPasswordResetMail(User user, String resetKey) {
         log.debug("Sending password reset email to '{}'", user.email);
-        return sendEmailFromTemplate(user, passwordResetEmail, "jhipsterSampleApplication password reset");
+        return sendEmailFromTemplate(user, OutboxMail.Type.PASSWORD_RESET, resetKey);
     }
 }
@@ -0,0 +1,85 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.OutboxMail;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.text.MessageFormat;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+/**
+ * The texts of a type of mail in a language, read from the {@code i18n/messages} bundles.
+ * <p>
+ * The greeting pattern is split around the login once, so that a mail is greeted by concatenation instead of
+ * a {@link MessageFormat} per recipient.
+ *
+ * @param lang           the language of the texts, for the {@code lang} attribute of the mail.
+ * @param title          the title, and subject, of the mail.
+ * @param greetingPrefix the greeting, before the login.
+ * @param greetingSuffix the greeting, after the login.
+ * @param text           the body of the mail, before its link.
+ * @param regards        the closing of the mail.
+ * @param signature      the signature of the mail.
+ */
+@RegisterForReflection
+public record MailTexts(
+    String lang,
+    String title,
+    String greetingPrefix,
+    String greetingSuffix,
+    String text,
+    String regards,
+    String signature
+) {
+    private static final String BUNDLE = "i18n/messages";
+
+    private static final String LOGIN_PLACEHOLDER = "\u0000";
+
+    public String greeting(String login) {
+        return greetingPrefix + login + greetingSuffix;
+    }
+
+    /**
+     * Read the texts of every type of mail in a language, falling back to the default language when it has
+     * no bundle.
+     *
+     * @param langKey the language, or {@code null} for the default language.
+     * @return the texts, by type of mail.
+     */
+    public static Map<OutboxMail.Type, MailTexts> load(String langKey) {
+        ResourceBundle bundle = bundle(langKey == null ? Constants.DEFAULT_LANGUAGE : langKey);
+        Map<OutboxMail.Type, MailTexts> texts = new EnumMap<>(OutboxMail.Type.class);
+        texts.put(OutboxMail.Type.ACTIVATION, of(bundle, "email.activation", "email.activation.text1"));
+        texts.put(OutboxMail.Type.CREATION, of(bundle, "email.activation", "email.creation.text1"));
+        texts.put(OutboxMail.Type.PASSWORD_RESET, of(bundle, "email.reset", "email.reset.text1"));
+        return texts;
+    }
+
+    private static ResourceBundle bundle(String langKey) {
+        ResourceBundle.Control control = ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+        ClassLoader classLoader = MailTexts.class.getClassLoader();
+        try {
+            return ResourceBundle.getBundle(BUNDLE, Locale.forLanguageTag(langKey), classLoader, control);
+        } catch (MissingResourceException e) {
+            return ResourceBundle.getBundle(BUNDLE, Locale.forLanguageTag(Constants.DEFAULT_LANGUAGE), classLoader, control);
+        }
+    }
+
+    private static MailTexts of(ResourceBundle bundle, String prefix, String textKey) {
+        Locale locale = bundle.getLocale();
+        String greeting = new MessageFormat(bundle.getString(prefix + ".greeting"), locale).format(new Object[] { LOGIN_PLACEHOLDER });
+        int login = greeting.indexOf(LOGIN_PLACEHOLDER);
+        return new MailTexts(
+            locale.toLanguageTag(),
+            bundle.getString(prefix + ".title"),
+            greeting.substring(0, login),
+            greeting.substring(login + LOGIN_PLACEHOLDER.length()),
+            bundle.getString(textKey),
+            bundle.getString(prefix + ".text2"),
+            bundle.getString("email.signature")
+        );
+    }
+}
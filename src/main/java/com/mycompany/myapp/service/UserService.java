@@ -1,22 +1,54 @@
 package com.mycompany.myapp.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.config.JHipsterProperties;
 import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.OutboxMail;
 import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.security.AsyncPasswordHasher;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import com.mycompany.myapp.security.BCryptPasswordHasher;
+import com.mycompany.myapp.security.KnownLogins;
+import com.mycompany.myapp.security.PasswordHashingRejectedException;
 import com.mycompany.myapp.security.RandomUtil;
+import com.mycompany.myapp.security.VerifiedCredentialCache;
 import com.mycompany.myapp.service.dto.UserDTO;
+import com.mycompany.myapp.service.dto.UserImportResultDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.panache.common.Page;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,55 +56,155 @@ import org.slf4j.LoggerFactory;
 @Transactional
 public class UserService {
 
+    /** How long a reset key can be used after it was issued. */
+    private static final Duration RESET_KEY_VALIDITY = Duration.ofDays(1);
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     final BCryptPasswordHasher passwordHasher;
 
+    final AsyncPasswordHasher asyncPasswordHasher;
+
+    final VerifiedCredentialCache credentialCache;
+
+    final KnownLogins knownLogins;
+
+    final AccountCache accountCache;
+
+    final AuthorityRegistry authorityRegistry;
+
+    final SessionFactory sessionFactory;
+
+    final Validator validator;
+
+    private final Cache<String, Long> managedUserCount;
+
+    private final int exportFetchSize;
+
+    private final int importBatchSize;
+
+    private final Duration purgeRetention;
+
+    private final int purgeBatchSize;
+
+    private final DistributionSummary purgedUsers;
+
+    private final Timer purgeDuration;
+
     @Inject
-    public UserService(BCryptPasswordHasher passwordHasher) {
+    public UserService(
+        BCryptPasswordHasher passwordHasher,
+        AsyncPasswordHasher asyncPasswordHasher,
+        VerifiedCredentialCache credentialCache,
+        KnownLogins knownLogins,
+        AccountCache accountCache,
+        AuthorityRegistry authorityRegistry,
+        SessionFactory sessionFactory,
+        Validator validator,
+        JHipsterProperties jHipsterProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.passwordHasher = passwordHasher;
+        this.asyncPasswordHasher = asyncPasswordHasher;
+        this.credentialCache = credentialCache;
+        this.knownLogins = knownLogins;
+        this.accountCache = accountCache;
+        this.authorityRegistry = authorityRegistry;
+        this.sessionFactory = sessionFactory;
+        this.validator = validator;
+        this.exportFetchSize = jHipsterProperties.export().fetchSize();
+        this.importBatchSize = jHipsterProperties.userImport().batchSize();
+        this.purgeRetention = jHipsterProperties.userPurge().retention();
+        this.purgeBatchSize = jHipsterProperties.userPurge().batchSize();
+        this.purgedUsers = DistributionSummary.builder("user.purge.rows")
+            .description("Users never activated deleted per purge run")
+            .register(meterRegistry);
+        this.purgeDuration = Timer.builder("user.purge").description("Duration of the purge runs").register(meterRegistry);
+        this.managedUserCount = Caffeine.newBuilder().expireAfterWrite(jHipsterProperties.pagination().countCacheTimeToLive()).build();
     }
 
     public Optional<User> activateRegistration(String key) {
         log.debug("Activating user for activation key {}", key);
-        return User.findOneByActivationKey(key).map(user -> {
+        return User.findOneByActivationKey(RandomUtil.hashKey(key)).map(user -> {
             // activate given user for the registration key.
             user.activated = true;
             user.activationKey = null;
+            accountCache.invalidate(user.login);
             log.debug("Activated user: {}", user);
             return user;
         });
     }
 
-    public void changePassword(String login, String currentClearTextPassword, String newPassword) {
-        User.findOneByLogin(login).ifPresent(user -> {
-            String currentEncryptedPassword = user.password;
-            if (!passwordHasher.checkPassword(currentClearTextPassword, currentEncryptedPassword)) {
-                throw new InvalidPasswordException();
-            }
-            user.password = passwordHasher.hash(newPassword);
+    /**
+     * Change the password of a user. Both the check of the current password and the hash of the new one
+     * run on the password hashing pool, outside of any transaction: the user is read and the new hash stored
+     * in two short transactions of their own, so that no connection is held while hashing.
+     *
+     * @param login                    the login of the user.
+     * @param currentClearTextPassword the current password, checked against the stored hash.
+     * @param newPassword              the new password.
+     * @return a stage failed with an {@link InvalidPasswordException} if the current password does not match.
+     */
+    @Transactional(Transactional.TxType.NEVER)
+    public CompletionStage<Void> changePassword(String login, String currentClearTextPassword, String newPassword) {
+        return QuarkusTransaction.requiringNew()
+            .call(() -> User.findOneByLogin(login))
+            .map(user ->
+                asyncPasswordHasher
+                    .checkPassword(currentClearTextPassword, user.password)
+                    .thenCompose(matches -> {
+                        if (!matches) {
+                            throw new InvalidPasswordException();
+                        }
+                        return asyncPasswordHasher.hash(newPassword);
+                    })
+                    .thenAcceptAsync(
+                        encryptedPassword -> {
+                            QuarkusTransaction.requiringNew().run(() -> updatePassword(user.id, encryptedPassword));
+                            credentialCache.invalidate(login);
+                            accountCache.invalidate(login);
+                        },
+                        Infrastructure.getDefaultWorkerPool()
+                    )
+            )
+            .orElseGet(() -> CompletableFuture.completedFuture(null));
+    }
+
+    private void updatePassword(Long id, String encryptedPassword) {
+        User.<User>findByIdOptional(id).ifPresent(user -> {
+            user.password = encryptedPassword;
             log.debug("Changed password for User: {}", user);
         });
     }
 
     public Optional<User> completePasswordReset(String newPassword, String key) {
         log.debug("Reset user password for reset key {}", key);
-        return User.findOneByResetKey(key)
-            .filter(user -> user.resetDate.isAfter(Instant.now().minusSeconds(86400)))
+        return User.findOneByResetKeyAndResetDateAfter(RandomUtil.hashKey(key), Instant.now().minus(RESET_KEY_VALIDITY))
             .map(user -> {
                 user.password = passwordHasher.hash(newPassword);
+                credentialCache.invalidate(user.login);
+                accountCache.invalidate(user.login);
                 user.resetKey = null;
                 user.resetDate = null;
                 return user;
             });
     }
 
+    /**
+     * Give an activated user a new reset key, and queue the password reset mail in the same transaction.
+     *
+     * @param mail the email of the user.
+     * @return the user, if an activated user has this email.
+     */
     public Optional<User> requestPasswordReset(String mail) {
         return User.findOneByEmailIgnoreCase(mail)
             .filter(user -> user.activated)
             .map(user -> {
-                user.resetKey = RandomUtil.generateResetKey();
+                String resetKey = RandomUtil.generateResetKey();
+                user.resetKey = RandomUtil.hashKey(resetKey);
                 user.resetDate = Instant.now();
+                accountCache.invalidate(user.login);
+                OutboxMail.queue(OutboxMail.Type.PASSWORD_RESET, user, resetKey);
                 return user;
             });
     }
@@ -104,11 +236,15 @@ public class UserService {
         // new user is not active
         newUser.activated = false;
         // new user gets registration key
-        newUser.activationKey = RandomUtil.generateActivationKey();
+        String activationKey = RandomUtil.generateActivationKey();
+        newUser.activationKey = RandomUtil.hashKey(activationKey);
         Set<Authority> authorities = new HashSet<>();
-        Authority.<Authority>findByIdOptional(AuthoritiesConstants.USER).ifPresent(authorities::add);
+        authorityRegistry.resolve(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.authorities = authorities;
         User.persist(newUser);
+        knownLogins.add(newUser.login, newUser.email);
+        OutboxMail.queue(OutboxMail.Type.ACTIVATION, newUser, activationKey);
+        managedUserCount.invalidateAll();
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -118,10 +254,31 @@ public class UserService {
             return false;
         }
         User.delete("id", existingUser.id);
+        accountCache.invalidate(existingUser.login);
         return true;
     }
 
     public User createUser(UserDTO userDTO) {
+        String resetKey = RandomUtil.generateResetKey();
+        User user = newUser(userDTO, passwordHasher.hash(RandomUtil.generatePassword()), resetKey);
+        if (userDTO.authorities != null) {
+            user.authorities = authorityRegistry.resolve(userDTO.authorities);
+        }
+        User.persist(user);
+        knownLogins.add(user.login, user.email);
+        accountCache.invalidate(user.login);
+        OutboxMail.queue(OutboxMail.Type.CREATION, user, resetKey);
+        managedUserCount.invalidateAll();
+        log.debug("Created Information for User: {}", user);
+        return user;
+    }
+
+    /**
+     * A new activated user, with a reset key for its first password.
+     *
+     * @param resetKey the reset key to send to the user, of which the user gets the hash.
+     */
+    private static User newUser(UserDTO userDTO, String encryptedPassword, String resetKey) {
         User user = new User();
         user.login = userDTO.login.toLowerCase();
         user.firstName = userDTO.firstName;
@@ -135,26 +292,219 @@ public class UserService {
         } else {
             user.langKey = userDTO.langKey;
         }
-        user.password = passwordHasher.hash(RandomUtil.generatePassword());
-        user.resetKey = RandomUtil.generateResetKey();
+        user.password = encryptedPassword;
+        user.resetKey = RandomUtil.hashKey(resetKey);
         user.resetDate = Instant.now();
         user.activated = true;
-        if (userDTO.authorities != null) {
-            user.authorities = userDTO.authorities
+        return user;
+    }
+
+    /**
+     * Create users in bulk, as {@link #createUser(UserDTO)} does one by one, {@code jhipster.user-import.batch-size}
+     * users at a time. For each batch:
+     * <ul>
+     * <li>the logins and emails already used are found in a single query,</li>
+     * <li>the random passwords are hashed in parallel on the password hashing pool, or on the calling
+     * thread when its queue is full,</li>
+     * <li>the users are inserted in their own transaction, with JDBC batching.</li>
+     * </ul>
+     * Invalid rows and rows whose login or email is already used are reported, and do not stop the import.
+     * The creation mails are queued in the outbox along with their batch.
+     *
+     * @param users the users to create; the iterator throws an {@link IllegalArgumentException} for a malformed row.
+     * @return the counts, throughput and row errors of the import.
+     */
+    @Transactional(Transactional.TxType.NEVER)
+    public UserImportResultDTO importUsers(Iterator<UserDTO> users) {
+        long start = System.nanoTime();
+        UserImportResultDTO result = new UserImportResultDTO();
+        Set<String> authorityNames = authorityRegistry.snapshot().nameSet();
+        Set<String> importedLogins = new HashSet<>();
+        Set<String> importedEmails = new HashSet<>();
+        List<ImportedUser> batch = new ArrayList<>(importBatchSize);
+        int row = 0;
+        while (users.hasNext()) {
+            row++;
+            UserDTO userDTO;
+            try {
+                userDTO = users.next();
+            } catch (IllegalArgumentException e) {
+                result.addError(row, null, e.getMessage());
+                continue;
+            }
+            String error = validateImportedUser(userDTO);
+            if (error == null && !importedLogins.add(userDTO.login.toLowerCase())) {
+                error = new UsernameAlreadyUsedException().getMessage();
+            } else if (error == null && !importedEmails.add(userDTO.email.toLowerCase())) {
+                error = new EmailAlreadyUsedException().getMessage();
+            }
+            if (error != null) {
+                result.addError(row, userDTO.login, error);
+                continue;
+            }
+            batch.add(new ImportedUser(row, userDTO));
+            if (batch.size() == importBatchSize) {
+                importBatch(batch, authorityNames, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, authorityNames, result);
+        }
+        managedUserCount.invalidateAll();
+        result.total = row;
+        result.durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        result.usersPerSecond = result.created * 1000.0 / Math.max(result.durationMillis, 1);
+        log.info(
+            "Imported {} of {} users in {} ms, {} users/s",
+            result.created,
+            result.total,
+            result.durationMillis,
+            Math.round(result.usersPerSecond)
+        );
+        return result;
+    }
+
+    private String validateImportedUser(UserDTO userDTO) {
+        Set<ConstraintViolation<UserDTO>> violations = validator.validate(userDTO);
+        if (!violations.isEmpty()) {
+            return violations
                 .stream()
-                .map(authority -> Authority.<Authority>findByIdOptional(authority))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toSet());
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
         }
-        User.persist(user);
-        log.debug("Created Information for User: {}", user);
-        return user;
+        if (userDTO.email == null) {
+            return "email: must not be null";
+        }
+        return null;
+    }
+
+    private void importBatch(List<ImportedUser> batch, Set<String> authorityNames, UserImportResultDTO result) {
+        Set<String> logins = batch.stream().map(imported -> imported.userDTO().login.toLowerCase()).collect(Collectors.toSet());
+        Set<String> emails = batch.stream().map(imported -> imported.userDTO().email.toLowerCase()).collect(Collectors.toSet());
+        Set<String> usedLogins = new HashSet<>();
+        Set<String> usedEmails = new HashSet<>();
+        QuarkusTransaction.requiringNew()
+            .run(() ->
+                User.findLoginAndEmailByLoginInOrEmailIn(logins, emails).forEach(used -> {
+                    usedLogins.add((String) used[0]);
+                    usedEmails.add((String) used[1]);
+                })
+            );
+
+        List<ImportedUser> accepted = new ArrayList<>(batch.size());
+        for (ImportedUser imported : batch) {
+            if (usedLogins.contains(imported.userDTO().login.toLowerCase())) {
+                result.addError(imported.row(), imported.userDTO().login, new UsernameAlreadyUsedException().getMessage());
+            } else if (usedEmails.contains(imported.userDTO().email.toLowerCase())) {
+                result.addError(imported.row(), imported.userDTO().login, new EmailAlreadyUsedException().getMessage());
+            } else {
+                accepted.add(imported);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<String>> passwords = accepted.stream().map(imported -> hashRandomPassword()).toList();
+        CompletableFuture.allOf(passwords.toArray(CompletableFuture[]::new)).join();
+
+        try {
+            QuarkusTransaction.requiringNew()
+                .run(() -> {
+                    Session session = User.getEntityManager().unwrap(Session.class);
+                    session.setJdbcBatchSize(importBatchSize);
+                    for (int i = 0; i < accepted.size(); i++) {
+                        UserDTO userDTO = accepted.get(i).userDTO();
+                        String resetKey = RandomUtil.generateResetKey();
+                        User user = newUser(userDTO, passwords.get(i).join(), resetKey);
+                        if (userDTO.authorities != null) {
+                            user.authorities = userDTO.authorities
+                                .stream()
+                                .filter(authorityNames::contains)
+                                .map(name -> session.getReference(Authority.class, name))
+                                .collect(Collectors.toSet());
+                        }
+                        session.persist(user);
+                        knownLogins.add(user.login, user.email);
+                        accountCache.invalidate(user.login);
+                        OutboxMail.queue(OutboxMail.Type.CREATION, user, resetKey);
+                    }
+                });
+        } catch (RuntimeException e) {
+            log.warn("Could not import a batch of {} users", accepted.size(), e);
+            accepted.forEach(imported -> result.addError(imported.row(), imported.userDTO().login, "Batch rolled back: " + e.getMessage()));
+            return;
+        }
+        result.created += accepted.size();
+    }
+
+    /**
+     * Hash a random password on the password hashing pool, or on the calling thread when the pool rejects
+     * it, so that a bulk import neither fails nor crowds out interactive logins.
+     */
+    private CompletableFuture<String> hashRandomPassword() {
+        String password = RandomUtil.generatePassword();
+        return asyncPasswordHasher
+            .hash(password)
+            .toCompletableFuture()
+            .exceptionally(e -> {
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                if (cause instanceof PasswordHashingRejectedException) {
+                    return passwordHasher.hash(password);
+                }
+                throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+            });
+    }
+
+    private record ImportedUser(int row, UserDTO userDTO) {}
+
+    private record PurgedBatch(int selected, long deleted) {}
+
+    /**
+     * Not activated users should be automatically deleted after {@code jhipster.user-purge.retention}.
+     * <p>
+     * Users are deleted {@code jhipster.user-purge.batch-size} at a time, each batch with a bulk delete in
+     * its own short transaction, so that neither the backlog is loaded in memory nor the table locked for
+     * the whole run.
+     * <p>
+     * This is scheduled to get fired every day, at 01:00 (am) by default.
+     */
+    @Scheduled(cron = "{jhipster.user-purge.cron}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional(Transactional.TxType.NEVER)
+    public void removeNotActivatedUsers() {
+        Instant createdBefore = Instant.now().minus(purgeRetention);
+        long start = System.nanoTime();
+        long purged = 0;
+        PurgedBatch batch;
+        do {
+            batch = QuarkusTransaction.requiringNew()
+                .call(() -> {
+                    List<Long> ids = User.findIdsByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(
+                        createdBefore,
+                        purgeBatchSize
+                    );
+                    return new PurgedBatch(ids.size(), ids.isEmpty() ? 0L : User.deleteByIdInAndActivatedIsFalse(ids));
+                });
+            purged += batch.deleted();
+            // a full batch may be followed by more users, even if some of it was activated meanwhile and kept
+        } while (batch.selected() == purgeBatchSize);
+        purgeDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        purgedUsers.record(purged);
+        if (purged > 0) {
+            managedUserCount.invalidateAll();
+            accountCache.invalidateAll();
+        }
+        log.info("Deleted {} users not activated since {}", purged, createdBefore);
     }
 
     public void deleteUser(String login) {
         User.findOneByLogin(login).ifPresent(user -> {
             User.delete("id", user.id);
+            credentialCache.invalidate(user.login);
+            accountCache.invalidate(user.login);
+            managedUserCount.invalidateAll();
             log.debug("Deleted User: {}", user);
         });
     }
@@ -168,7 +518,10 @@ public class UserService {
     public Optional<UserDTO> updateUser(UserDTO userDTO) {
         return User.<User>findByIdOptional(userDTO.id)
             .map(user -> {
+                credentialCache.invalidate(user.login);
+                accountCache.invalidate(user.login);
                 user.login = userDTO.login.toLowerCase();
+                accountCache.invalidate(user.login);
                 user.firstName = userDTO.firstName;
                 user.lastName = userDTO.lastName;
                 if (userDTO.email != null) {
@@ -177,14 +530,10 @@ public class UserService {
                 user.imageUrl = userDTO.imageUrl;
                 user.activated = userDTO.activated;
                 user.langKey = userDTO.langKey;
+                knownLogins.add(user.login, user.email);
                 Set<Authority> managedAuthorities = user.authorities;
                 managedAuthorities.clear();
-                userDTO.authorities
-                    .stream()
-                    .map(authority -> Authority.<Authority>findByIdOptional(authority))
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .forEach(managedAuthorities::add);
+                managedAuthorities.addAll(authorityRegistry.resolve(userDTO.authorities));
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -203,6 +552,8 @@ public class UserService {
      */
     public void updateUser(String login, String firstName, String lastName, String email, String langKey, String imageUrl) {
         User.findOneByLogin(login).ifPresent(user -> {
+            credentialCache.invalidate(user.login);
+            accountCache.invalidate(user.login);
             user.firstName = firstName;
             user.lastName = lastName;
             if (email != null) {
@@ -210,6 +561,7 @@ public class UserService {
             }
             user.langKey = langKey;
             user.imageUrl = imageUrl;
+            knownLogins.add(user.login, user.email);
             log.debug("Changed Information for User: {}", user);
         });
     }
@@ -218,11 +570,109 @@ public class UserService {
         return User.findOneWithAuthoritiesByLogin(login);
     }
 
-    public List<UserDTO> getAllManagedUsers() {
-        return User.findAllByLoginNot(Page.ofSize(20), Constants.ANONYMOUS_USER).stream().map(UserDTO::new).collect(Collectors.toList());
+    /**
+     * Get a page of users by offset, sorted on any property, with the id as a tie-breaker.
+     *
+     * @param page the page.
+     * @param sort the sort, the id is appended to it when it is on another property.
+     * @return the users of the page.
+     */
+    public List<UserDTO> getAllManagedUsers(Page page, Sort sort) {
+        Sort.Column first = sort.getColumns().get(0);
+        Sort ordered = "id".equals(first.getName()) ? sort : sort.and("id", first.getDirection());
+        return toManagedUserDTOs(User.findAllByLoginNot(page, ordered, Constants.ANONYMOUS_USER));
+    }
+
+    /**
+     * Get the users right after a given one, for keyset pagination on a property and the id.
+     *
+     * @param property  the property the users are sorted on.
+     * @param direction the sort direction.
+     * @param after     the value of the property on the last user of the previous page.
+     * @param afterId   the id of the last user of the previous page, {@code null} for the first page.
+     * @param size      the page size.
+     * @return the users of the page.
+     */
+    public List<UserDTO> getAllManagedUsersAfter(String property, Sort.Direction direction, Object after, Long afterId, int size) {
+        if (afterId == null) {
+            return toManagedUserDTOs(
+                User.findAllByLoginNot(Page.ofSize(size), User.keysetSort(property, direction), Constants.ANONYMOUS_USER)
+            );
+        }
+        return toManagedUserDTOs(User.findAllByLoginNotAfter(property, direction, after, afterId, size, Constants.ANONYMOUS_USER));
+    }
+
+    /**
+     * Map a page of users with the authorities of the whole page loaded in one query, whatever the page
+     * size and the state of the second-level cache.
+     */
+    private List<UserDTO> toManagedUserDTOs(List<User> users) {
+        Map<Long, Set<String>> authorities = User.findAuthorityNamesByIdIn(users.stream().map(user -> user.id).toList());
+        return users.stream().map(user -> new UserDTO(user, authorities.getOrDefault(user.id, Set.of()))).collect(Collectors.toList());
+    }
+
+    /**
+     * Export every managed user, in id order. Users are read through a stateless session, with their
+     * authority names joined in the same query, {@code jhipster.export.fetch-size} rows per round trip:
+     * each user is handed to the consumer as soon as its last row is read, so memory does not grow with
+     * the number of users.
+     *
+     * @param consumer the consumer of the users, called within the transaction.
+     */
+    public void exportManagedUsers(Consumer<UserDTO> consumer) {
+        try (
+            StatelessSession session = sessionFactory.openStatelessSession();
+            Stream<Object[]> rows = User.streamAllWithAuthorityNamesByLoginNot(session, Constants.ANONYMOUS_USER, exportFetchSize)
+        ) {
+            UserDTO current = null;
+            for (Iterator<Object[]> it = rows.iterator(); it.hasNext();) {
+                Object[] row = it.next();
+                if (current == null || !current.id.equals(row[0])) {
+                    if (current != null) {
+                        consumer.accept(current);
+                    }
+                    current = toExportedUserDTO(row);
+                }
+                if (row[12] != null) {
+                    current.authorities.add((String) row[12]);
+                }
+            }
+            if (current != null) {
+                consumer.accept(current);
+            }
+        }
+    }
+
+    private static UserDTO toExportedUserDTO(Object[] row) {
+        UserDTO user = new UserDTO();
+        user.id = (Long) row[0];
+        user.login = (String) row[1];
+        user.firstName = (String) row[2];
+        user.lastName = (String) row[3];
+        user.email = (String) row[4];
+        user.imageUrl = (String) row[5];
+        user.activated = (Boolean) row[6];
+        user.langKey = (String) row[7];
+        user.createdBy = (String) row[8];
+        user.createdDate = (Instant) row[9];
+        user.lastModifiedBy = (String) row[10];
+        user.lastModifiedDate = (Instant) row[11];
+        user.authorities = new TreeSet<>();
+        return user;
+    }
+
+    /**
+     * Count the managed users. The count is cached for
+     * {@code jhipster.pagination.count-cache-time-to-live}, so that paging does not run a full count on
+     * every call; users created or deleted through this service refresh it.
+     *
+     * @return the number of managed users.
+     */
+    public long countManagedUsers() {
+        return managedUserCount.get(Constants.ANONYMOUS_USER, login -> User.count("login != ?1", login));
     }
 
     public List<String> getAuthorities() {
-        return Authority.<Authority>streamAll().map(authority -> authority.name).collect(Collectors.toList());
+        return authorityRegistry.names();
     }
 }
@@ -57,6 +57,13 @@ public class UserDTO {
     }
 
     public UserDTO(User user) {
+        this(user, user.authorities.stream().map(authority -> authority.name).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Build a DTO with authority names loaded separately, without initializing the lazy authorities.
+     */
+    public UserDTO(User user, Set<String> authorities) {
         this.id = user.id;
         this.login = user.login;
         this.firstName = user.firstName;
@@ -69,7 +76,7 @@ public class UserDTO {
         this.createdDate = user.createdDate;
         this.lastModifiedBy = user.lastModifiedBy;
         this.lastModifiedDate = user.lastModifiedDate;
-        this.authorities = user.authorities.stream().map(authority -> authority.name).collect(Collectors.toSet());
+        this.authorities = authorities;
     }
 
     @Override
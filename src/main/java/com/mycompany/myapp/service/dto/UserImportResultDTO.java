@@ -0,0 +1,52 @@
+package com.mycompany.myapp.service.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a bulk user import: counts, throughput and the error of each rejected row.
+ */
+@RegisterForReflection
+public class UserImportResultDTO {
+
+    public int total;
+
+    public int created;
+
+    public int failed;
+
+    public long durationMillis;
+
+    public double usersPerSecond;
+
+    public List<RowError> errors = new ArrayList<>();
+
+    public void addError(int row, String login, String message) {
+        errors.add(new RowError(row, login, message));
+        failed++;
+    }
+
+    /**
+     * A rejected row, numbered from 1 in the order of the import.
+     */
+    @RegisterForReflection
+    public static class RowError {
+
+        public int row;
+
+        public String login;
+
+        public String message;
+
+        public RowError() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public RowError(int row, String login, String message) {
+            this.row = row;
+            this.login = login;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.mycompany.myapp.service.dto;
+
+import com.mycompany.myapp.domain.OutboxMail;
+import com.mycompany.myapp.domain.User;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * A mail to a user, with only what the mail templates need: templates never see the {@link User} entity.
+ *
+ * @param type    the type of mail.
+ * @param login   the login of the user.
+ * @param email   the email the mail is sent to.
+ * @param langKey the language of the user, or {@code null} for the default language.
+ * @param key     the activation key, or the reset key, the mail links to.
+ */
+@RegisterForReflection
+public record UserMailDTO(OutboxMail.Type type, String login, String email, String langKey, String key) {
+    public static UserMailDTO of(OutboxMail.Type type, User user, String key) {
+        return new UserMailDTO(type, user.login, user.email, user.langKey, key);
+    }
+
+    public static UserMailDTO of(OutboxMail mail) {
+        return new UserMailDTO(mail.type, mail.login, mail.recipient, mail.langKey, mail.mailKey);
+    }
+}
@@ -1,8 +1,10 @@
 package com.mycompany.myapp.web.rest;
 
 import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.security.RateLimitExceededException;
+import com.mycompany.myapp.security.RateLimiter;
+import com.mycompany.myapp.service.AccountCache;
 import com.mycompany.myapp.service.InvalidPasswordException;
-import com.mycompany.myapp.service.MailService;
 import com.mycompany.myapp.service.UserService;
 import com.mycompany.myapp.service.UsernameAlreadyUsedException;
 import com.mycompany.myapp.service.dto.PasswordChangeDTO;
@@ -13,17 +15,22 @@ import com.mycompany.myapp.web.rest.errors.LoginAlreadyUsedException;
 import com.mycompany.myapp.web.rest.vm.KeyAndPasswordVM;
 import com.mycompany.myapp.web.rest.vm.ManagedUserVM;
 import io.quarkus.security.Authenticated;
+import io.vertx.core.http.HttpServerRequest;
 import jakarta.annotation.security.PermitAll;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
 import java.security.Principal;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,18 +53,22 @@ public class AccountResource {
         }
     }
 
-    final MailService mailService;
-
     final UserService userService;
 
+    final RateLimiter rateLimiter;
+
+    final AccountCache accountCache;
+
     @Inject
-    public AccountResource(MailService mailService, UserService userService) {
-        this.mailService = mailService;
+    public AccountResource(UserService userService, RateLimiter rateLimiter, AccountCache accountCache) {
         this.userService = userService;
+        this.rateLimiter = rateLimiter;
+        this.accountCache = accountCache;
     }
 
     /**
-     * {@code GET /account} : get the current user.
+     * {@code GET /account} : get the current user, with an {@code ETag}: a request whose {@code If-None-Match}
+     * has it gets {@code 304 (Not Modified)} instead.
      *
      * @return the current user.
      * @throws RuntimeException {@code 500 (Internal Server Error)} if the user couldn't be returned.
@@ -65,11 +76,19 @@ public class AccountResource {
     @GET
     @Path("/account")
     @Authenticated
-    public UserDTO getAccount(@Context SecurityContext ctx) {
-        return userService
-            .getUserWithAuthoritiesByLogin(ctx.getUserPrincipal().getName())
-            .map(UserDTO::new)
+    public Response getAccount(@Context SecurityContext ctx, @Context Request request) {
+        AccountCache.Account account = accountCache
+            .get(ctx.getUserPrincipal().getName(), login -> userService.getUserWithAuthoritiesByLogin(login).map(UserDTO::new))
             .orElseThrow(() -> new AccountResourceException("User could not be found"));
+        EntityTag etag = new EntityTag(account.etag());
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl).build();
+        }
+        return Response.ok(account.json(), MediaType.APPLICATION_JSON_TYPE).tag(etag).cacheControl(cacheControl).build();
     }
 
     /**
@@ -104,17 +123,19 @@ public class AccountResource {
      * @throws InvalidPasswordWebException  {@code 400 (Bad Request)} if the password is incorrect.
      * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already used.
      * @throws LoginAlreadyUsedException {@code 400 (Bad Request)} if the login is already used.
+     * @throws RateLimitExceededException {@code 429 (Too Many Requests)} if the client or login registers too often.
      */
     @POST
     @Path("/register")
     @PermitAll
-    public CompletionStage<Response> registerAccount(@Valid ManagedUserVM managedUserVM) {
+    public Response registerAccount(@Valid ManagedUserVM managedUserVM, @Context HttpServerRequest request) {
+        rateLimiter.check(RateLimiter.Endpoint.REGISTER, request.remoteAddress().host(), managedUserVM.login);
         if (!checkPasswordLength(managedUserVM.password)) {
             throw new InvalidPasswordWebException();
         }
         try {
-            var user = userService.registerUser(managedUserVM, managedUserVM.password);
-            return mailService.sendActivationEmail(user).thenApply(it -> Response.created(null).build());
+            userService.registerUser(managedUserVM, managedUserVM.password);
+            return Response.created(null).build();
         } catch (UsernameAlreadyUsedException e) {
             throw new LoginAlreadyUsedException();
         } catch (com.mycompany.myapp.service.EmailAlreadyUsedException e) {
@@ -161,33 +182,41 @@ public class AccountResource {
      */
     @POST
     @Path("/account/change-password")
-    public Response changePassword(PasswordChangeDTO passwordChangeDto, @Context SecurityContext ctx) {
+    public CompletionStage<Response> changePassword(PasswordChangeDTO passwordChangeDto, @Context SecurityContext ctx) {
         var userLogin = Optional.ofNullable(ctx.getUserPrincipal().getName()).orElseThrow(
             () -> new AccountResourceException("Current user login not found")
         );
         if (!checkPasswordLength(passwordChangeDto.newPassword)) {
             throw new InvalidPasswordWebException();
         }
-        try {
-            userService.changePassword(userLogin, passwordChangeDto.currentPassword, passwordChangeDto.newPassword);
-        } catch (InvalidPasswordException e) {
-            throw new InvalidPasswordWebException();
-        }
-        return Response.ok().build();
+        return userService
+            .changePassword(userLogin, passwordChangeDto.currentPassword, passwordChangeDto.newPassword)
+            .handle((it, throwable) -> {
+                if (throwable == null) {
+                    return Response.ok().build();
+                }
+                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                if (cause instanceof InvalidPasswordException) {
+                    throw new InvalidPasswordWebException();
+                }
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+            });
     }
 
     /**
      * {@code POST /account/reset-password/init} : Send an email to reset the password of the user.
      *
      * @param mail the mail of the user.
+     * @throws RateLimitExceededException {@code 429 (Too Many Requests)} if the client or mail requests resets too often.
      */
     @POST
     @Path("/account/reset-password/init")
     @Consumes(MediaType.TEXT_PLAIN)
-    public Response requestPasswordReset(String mail) {
-        userService
-            .requestPasswordReset(mail)
-            .ifPresentOrElse(mailService::sendPasswordResetMail, () -> log.warn("Password reset requested for non existing mail"));
+    public Response requestPasswordReset(String mail, @Context HttpServerRequest request) {
+        rateLimiter.check(RateLimiter.Endpoint.RESET_PASSWORD, request.remoteAddress().host(), mail);
+        if (userService.requestPasswordReset(mail).isEmpty()) {
+            log.warn("Password reset requested for non existing mail");
+        }
         return Response.ok().build();
     }
 
@@ -1,15 +1,21 @@
 package com.mycompany.myapp.web.rest;
 
 import com.mycompany.myapp.security.AuthoritiesConstants;
-import com.mycompany.myapp.service.UserService;
+import com.mycompany.myapp.service.AuthorityRegistry;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 import java.util.List;
 
 /**
@@ -21,22 +27,45 @@ import java.util.List;
 @RequestScoped
 public class AuthorityResource {
 
-    final UserService userService;
+    final AuthorityRegistry authorityRegistry;
 
     @Inject
-    public AuthorityResource(UserService userService) {
-        this.userService = userService;
+    public AuthorityResource(AuthorityRegistry authorityRegistry) {
+        this.authorityRegistry = authorityRegistry;
     }
 
     /**
-     * Gets a list of all roles.
+     * Gets a list of all roles, with an {@code ETag}: a request whose {@code If-None-Match} has it gets
+     * {@code 304 (Not Modified)} instead.
      *
+     * @param request the HTTP request.
      * @return a string list of all roles.
      */
     @GET
     @Path("/authorities")
     @RolesAllowed(AuthoritiesConstants.ADMIN)
-    public List<String> getAuthorities() {
-        return userService.getAuthorities();
+    public Response getAuthorities(@Context Request request) {
+        AuthorityRegistry.Snapshot snapshot = authorityRegistry.snapshot();
+        EntityTag etag = new EntityTag(snapshot.etag());
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl).build();
+        }
+        return Response.ok(snapshot.names()).tag(etag).cacheControl(cacheControl).build();
+    }
+
+    /**
+     * Reloads the roles from the database, after they were changed.
+     *
+     * @return a string list of all roles.
+     */
+    @POST
+    @Path("/authorities/refresh")
+    @RolesAllowed(AuthoritiesConstants.ADMIN)
+    public List<String> refreshAuthorities() {
+        return authorityRegistry.refresh().names();
     }
 }
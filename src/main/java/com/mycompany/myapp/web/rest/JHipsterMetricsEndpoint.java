@@ -62,6 +62,8 @@ public class JHipsterMetricsEndpoint {
         results.put("garbageCollector", this.garbageCollectorMetrics());
         // Process stats
         results.put("processMetrics", this.processMetrics());
+        // Cache stats
+        results.put("cache", this.cacheMetrics());
 
         return results;
     }
@@ -87,6 +89,56 @@ public class JHipsterMetricsEndpoint {
         return resultsProcess;
     }
 
+    /**
+     * Hits, misses and puts of each second-level cache region, from the Hibernate statistics, and of each
+     * Caffeine cache, by region or cache name, in the form shown by the cache table of the Metrics page.
+     */
+    private Map<String, Map<String, Number>> cacheMetrics() {
+        Map<String, Map<String, Number>> resultsCache = new TreeMap<>();
+
+        Collection<FunctionCounter> counters = Search.in(this.meterRegistry).name(s -> s.startsWith("cache.")).functionCounters();
+        counters.forEach(counter -> putCacheMetric(resultsCache, counter.getId().getTag("cache"), counter, counter.count()));
+
+        Collection<Gauge> gauges = Search.in(this.meterRegistry).name(s -> s.startsWith("cache.")).gauges();
+        gauges.forEach(gauge -> putCacheMetric(resultsCache, gauge.getId().getTag("cache"), gauge, gauge.value()));
+
+        counters = Search.in(this.meterRegistry).name(s -> s.startsWith("hibernate.second.level.cache.")).functionCounters();
+        counters.forEach(counter ->
+            putCacheMetric(resultsCache, counter.getId().getTag("region"), counter, counter.count(), "hibernate.second.level.")
+        );
+
+        counters = Search.in(this.meterRegistry).name(s -> s.startsWith("hibernate.cache.natural.id.")).functionCounters();
+        counters.forEach(counter -> putCacheMetric(resultsCache, "natural-id", counter, counter.count(), "hibernate.cache.natural.id."));
+
+        return resultsCache;
+    }
+
+    private void putCacheMetric(Map<String, Map<String, Number>> resultsCache, String name, Meter meter, Number value) {
+        putCacheMetric(resultsCache, name, meter, value, "");
+    }
+
+    /**
+     * Put a cache meter under {@code cache.<operation>[.<result>]}, Hibernate requests being reported as gets.
+     */
+    private void putCacheMetric(Map<String, Map<String, Number>> resultsCache, String name, Meter meter, Number value, String prefix) {
+        String key = meter.getId().getName();
+        if (name == null) {
+            logger.warn(MISSING_NAME_TAG_MESSAGE, key);
+            return;
+        }
+        String operation = key.substring(prefix.length());
+        if (!prefix.isEmpty()) {
+            operation = "cache." + operation.substring(operation.lastIndexOf('.') + 1).replace("requests", "gets");
+        }
+        String result = meter.getId().getTag("result");
+        if (result != null) {
+            operation += "." + result;
+        }
+        resultsCache
+            .computeIfAbsent(name, it -> new TreeMap<>())
+            .merge(operation, value.doubleValue(), (x, y) -> x.doubleValue() + y.doubleValue());
+    }
+
     private Map<String, Object> garbageCollectorMetrics() {
         Map<String, Object> resultsGarbageCollector = new HashMap<>();
 
@@ -0,0 +1,36 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.security.jwt.JwtKeyring;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Publishes the public keys tokens can be verified with, as a JSON Web Key Set.
+ */
+@Path("/management/jwks")
+@Produces(MediaType.APPLICATION_JSON)
+@RequestScoped
+public class JwksResource {
+
+    private final JwtKeyring keyring;
+
+    @Inject
+    public JwksResource(JwtKeyring keyring) {
+        this.keyring = keyring;
+    }
+
+    /**
+     * {@code GET /management/jwks} : get the verification keys.
+     *
+     * @return the {@link Response} with status {@code 200 (OK)} and the JSON Web Key Set in body.
+     */
+    @GET
+    public Response getKeys() {
+        return Response.ok(keyring.current().jwks()).build();
+    }
+}
@@ -1,11 +1,12 @@
 package com.mycompany.myapp.web.rest;
 
+import com.mycompany.myapp.security.RateLimiter;
 import com.mycompany.myapp.security.jwt.TokenProvider;
 import com.mycompany.myapp.service.AuthenticationService;
 import com.mycompany.myapp.web.rest.vm.LoginVM;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import io.quarkus.security.UnauthorizedException;
-import io.quarkus.security.runtime.QuarkusSecurityIdentity;
+import io.vertx.core.http.HttpServerRequest;
 import jakarta.annotation.security.PermitAll;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
@@ -15,8 +16,11 @@ import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,26 +39,43 @@ public class UserJWTController {
 
     final TokenProvider tokenProvider;
 
+    final RateLimiter rateLimiter;
+
     @Inject
-    public UserJWTController(AuthenticationService authenticationService, TokenProvider tokenProvider) {
+    public UserJWTController(AuthenticationService authenticationService, TokenProvider tokenProvider, RateLimiter rateLimiter) {
         this.authenticationService = authenticationService;
         this.tokenProvider = tokenProvider;
+        this.rateLimiter = rateLimiter;
     }
 
     @POST
     @Path("/authenticate")
     @PermitAll
-    public Response authorize(@Valid LoginVM loginVM) {
+    public CompletionStage<Response> authorize(@Valid LoginVM loginVM, @Context HttpServerRequest request) {
+        rateLimiter.check(RateLimiter.Endpoint.AUTHENTICATE, request.remoteAddress().host(), loginVM.username);
+        boolean rememberMe = (loginVM.rememberMe == null) ? false : loginVM.rememberMe;
         try {
-            QuarkusSecurityIdentity identity = authenticationService.authenticate(loginVM.username, loginVM.password);
-            boolean rememberMe = (loginVM.rememberMe == null) ? false : loginVM.rememberMe;
-            String jwt = tokenProvider.createToken(identity, rememberMe);
-            return Response.ok().entity(new JWTToken(jwt)).header("Authorization", "Bearer " + jwt).build();
+            return authenticationService
+                .authenticate(loginVM.username, loginVM.password)
+                .handle((identity, throwable) -> {
+                    if (throwable != null) {
+                        throw toUnauthorized(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+                    }
+                    String jwt = tokenProvider.createToken(identity, rememberMe);
+                    return Response.ok().entity(new JWTToken(jwt)).header("Authorization", "Bearer " + jwt).build();
+                });
         } catch (SecurityException e) {
             throw new UnauthorizedException();
         }
     }
 
+    private static RuntimeException toUnauthorized(Throwable throwable) {
+        if (throwable instanceof SecurityException) {
+            return new UnauthorizedException();
+        }
+        return throwable instanceof RuntimeException ? (RuntimeException) throwable : new CompletionException(throwable);
+    }
+
     /**
      * Object to return as body in JWT Authentication.
      */
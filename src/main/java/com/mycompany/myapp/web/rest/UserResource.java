@@ -2,25 +2,51 @@ package com.mycompany.myapp.web.rest;
 
 import static jakarta.ws.rs.core.UriBuilder.fromPath;
 
+import com.mycompany.myapp.config.JHipsterProperties;
 import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.security.AuthoritiesConstants;
-import com.mycompany.myapp.service.MailService;
 import com.mycompany.myapp.service.UserService;
 import com.mycompany.myapp.service.dto.UserDTO;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
 import com.mycompany.myapp.web.rest.errors.EmailAlreadyUsedException;
 import com.mycompany.myapp.web.rest.errors.LoginAlreadyUsedException;
+import com.mycompany.myapp.web.util.CsvUtil;
 import com.mycompany.myapp.web.util.HeaderUtil;
+import com.mycompany.myapp.web.util.PaginationUtil;
 import com.mycompany.myapp.web.util.ResponseUtil;
+import io.quarkus.panache.common.Page;
+import io.quarkus.panache.common.Sort;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbException;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,23 +83,59 @@ public class UserResource {
 
     private final Logger log = LoggerFactory.getLogger(UserResource.class);
 
+    private static final List<String> ALLOWED_ORDERED_PROPERTIES = List.of(
+        "id",
+        "login",
+        "firstName",
+        "lastName",
+        "email",
+        "activated",
+        "langKey",
+        "createdBy",
+        "createdDate",
+        "lastModifiedBy",
+        "lastModifiedDate"
+    );
+
     private static final String ENTITY_NAME = "users";
 
-    final String applicationName;
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
 
-    final MailService mailService;
+    private static final String[] EXPORT_CSV_HEADER = {
+        "id",
+        "login",
+        "firstName",
+        "lastName",
+        "email",
+        "imageUrl",
+        "activated",
+        "langKey",
+        "createdBy",
+        "createdDate",
+        "lastModifiedBy",
+        "lastModifiedDate",
+        "authorities",
+    };
+
+    final String applicationName;
 
     final UserService userService;
 
+    final JHipsterProperties jHipsterProperties;
+
+    final Jsonb jsonb;
+
     @Inject
     public UserResource(
         @ConfigProperty(name = "application.name") String applicationName,
-        MailService mailService,
-        UserService userService
+        UserService userService,
+        JHipsterProperties jHipsterProperties,
+        Jsonb jsonb
     ) {
         this.applicationName = applicationName;
-        this.mailService = mailService;
         this.userService = userService;
+        this.jHipsterProperties = jHipsterProperties;
+        this.jsonb = jsonb;
     }
 
     /**
@@ -101,13 +163,134 @@ public class UserResource {
             throw new EmailAlreadyUsedException();
         } else {
             var newUser = userService.createUser(userDTO);
-            mailService.sendCreationEmail(newUser);
             Response.ResponseBuilder response = Response.created(fromPath("/api/admin/users").path(newUser.login).build()).entity(newUser);
             HeaderUtil.createAlert(applicationName, "userManagement.created", newUser.login).forEach(response::header);
             return response.build();
         }
     }
 
+    /**
+     * {@code POST /users/import} : Creates users in bulk.
+     * <p>
+     * Each row is created as by {@code POST /users}, and its creation email is queued along with it; rows
+     * that are invalid, or whose login or email is already in use, are reported without stopping the import.
+     * The ids of the rows are ignored.
+     *
+     * @param headers the request headers, for the type of the body.
+     * @param body    the users, as newline-delimited JSON, or as CSV with a header record naming the columns.
+     * @return the {@link Response} with status {@code 200 (OK)} and with body the outcome of the import, or with
+     * status {@code 400 (Bad Request)} if the CSV header has no {@code login} or {@code email} column.
+     * @throws IOException if the body cannot be read.
+     */
+    @POST
+    @Path("/import")
+    @Consumes({ APPLICATION_NDJSON, CsvUtil.TEXT_CSV })
+    @RolesAllowed(AuthoritiesConstants.ADMIN)
+    public Response importUsers(@Context HttpHeaders headers, InputStream body) throws IOException {
+        log.debug("REST request to import Users as {}", headers.getMediaType());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        final Iterator<UserDTO> users;
+        if (headers.getMediaType().isCompatible(MediaType.valueOf(CsvUtil.TEXT_CSV))) {
+            List<String> header = CsvUtil.readRecord(reader);
+            if (header == null || !header.contains("login") || !header.contains("email")) {
+                return Response.status(Response.Status.BAD_REQUEST).build();
+            }
+            users = rows(
+                () -> {
+                    List<String> record;
+                    do {
+                        record = CsvUtil.readRecord(reader);
+                    } while (record != null && record.size() == 1 && record.get(0).isBlank());
+                    return record;
+                },
+                record -> fromCsvRecord(header, record)
+            );
+        } else {
+            users = rows(
+                () -> {
+                    String line;
+                    do {
+                        line = reader.readLine();
+                    } while (line != null && line.isBlank());
+                    return line;
+                },
+                line -> {
+                    try {
+                        return jsonb.fromJson(line, UserDTO.class);
+                    } catch (JsonbException e) {
+                        throw new IllegalArgumentException("Malformed JSON: " + e.getMessage(), e);
+                    }
+                }
+            );
+        }
+        return Response.ok(userService.importUsers(users)).build();
+    }
+
+    private static UserDTO fromCsvRecord(List<String> header, List<String> record) {
+        if (record.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " fields, found " + record.size());
+        }
+        UserDTO user = new UserDTO();
+        user.login = csvField(header, record, "login");
+        user.firstName = csvField(header, record, "firstName");
+        user.lastName = csvField(header, record, "lastName");
+        user.email = csvField(header, record, "email");
+        user.imageUrl = csvField(header, record, "imageUrl");
+        user.langKey = csvField(header, record, "langKey");
+        String authorities = csvField(header, record, "authorities");
+        user.authorities = authorities == null ? null : Set.of(authorities.trim().split("\\s+"));
+        return user;
+    }
+
+    private static String csvField(List<String> header, List<String> record, String column) {
+        int index = header.indexOf(column);
+        return index < 0 || record.get(index).isEmpty() ? null : CsvUtil.unescapeFormula(record.get(index));
+    }
+
+    /**
+     * Iterate over the users of an import: records are read one by one, and a record that cannot be parsed
+     * into a user is consumed before {@link Iterator#next()} throws, so that the import goes on with the next.
+     */
+    private static <T> Iterator<UserDTO> rows(RecordReader<T> reader, Function<T, UserDTO> parser) {
+        return new Iterator<>() {
+            private T record;
+
+            private boolean read;
+
+            @Override
+            public boolean hasNext() {
+                if (!read) {
+                    try {
+                        record = reader.read();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    read = true;
+                }
+                return record != null;
+            }
+
+            @Override
+            public UserDTO next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                read = false;
+                UserDTO user = parser.apply(record);
+                if (user == null) {
+                    throw new IllegalArgumentException("Empty row");
+                }
+                user.id = null;
+                return user;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface RecordReader<T> {
+        T read() throws IOException;
+    }
+
     /**
      * {@code PUT /users} : Updates an existing User.
      *
@@ -151,18 +334,173 @@ public class UserResource {
 
     /**
      * {@code GET /users} : get all users.
+     * <p>
+     * Users are paged through with the {@code after} cursor given in the {@code next} link, which costs the
+     * same at any depth: the cursor holds the sort value and the id of the last user of the page, and the
+     * next page seeks past both, the id breaking ties. Only a {@code page} without a cursor, to jump to a
+     * given page, pages by offset; its {@code next} link carries the cursor too.
      *
-     * @param pagination the pagination information.
-     * @return the {@link Response} with status {@code 200 (OK)} and with body all users.
+     * @param page    the index of the page, for offset pagination.
+     * @param size    the size of the page.
+     * @param sort    the sort, as {@code property,asc} or {@code property,desc}.
+     * @param after   the cursor of the page, for keyset pagination.
+     * @param uriInfo the request URI.
+     * @return the {@link Response} with status {@code 200 (OK)} and with body the users of the page, or with status
+     * {@code 400 (Bad Request)} if the sort or the cursor is invalid.
      */
     @GET
-    public Response getAllUsers(@QueryParam("sort") String pagination) {
-        final List<UserDTO> page = userService.getAllManagedUsers();
-        //        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        Response.ResponseBuilder response = Response.ok(page);
+    public Response getAllUsers(
+        @QueryParam("page") Integer page,
+        @QueryParam("size") Integer size,
+        @QueryParam("sort") @DefaultValue("id,asc") String sort,
+        @QueryParam("after") String after,
+        @Context UriInfo uriInfo
+    ) {
+        log.debug("REST request to get all User for an admin");
+        String[] sortParts = sort.split(",");
+        String property = sortParts[0];
+        if (!ALLOWED_ORDERED_PROPERTIES.contains(property)) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        Sort.Direction direction = sortParts.length > 1 && "desc".equalsIgnoreCase(sortParts[1])
+            ? Sort.Direction.Descending
+            : Sort.Direction.Ascending;
+        int pageSize = Math.min(
+            Math.max(size != null ? size : jHipsterProperties.pagination().defaultPageSize(), 1),
+            jHipsterProperties.pagination().maxPageSize()
+        );
+
+        if (after != null || page == null) {
+            Object afterValue = null;
+            Long afterId = null;
+            if (after != null) {
+                try {
+                    String cursor = PaginationUtil.decodeCursor(after);
+                    int separator = cursor.indexOf(':');
+                    afterId = Long.valueOf(separator < 0 ? cursor : cursor.substring(0, separator));
+                    afterValue = separator < 0 ? null : parseKeysetValue(property, cursor.substring(separator + 1));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    return Response.status(Response.Status.BAD_REQUEST).build();
+                }
+            }
+            final List<UserDTO> users = userService.getAllManagedUsersAfter(property, direction, afterValue, afterId, pageSize);
+            String nextCursor = users.size() == pageSize ? keysetCursor(property, users.get(users.size() - 1)) : null;
+            Response.ResponseBuilder response = Response.ok(users);
+            PaginationUtil.generateKeysetHttpHeaders(uriInfo.getRequestUriBuilder(), nextCursor, userService.countManagedUsers()).forEach(
+                response::header
+            );
+            return response.build();
+        }
+
+        int pageIndex = Math.max(page, 0);
+        // in the order of the cursor pages, so that the next link can carry on with a cursor
+        Sort order = Sort.by(property, direction, Sort.NullPrecedence.NULLS_LAST);
+        final List<UserDTO> users = userService.getAllManagedUsers(Page.of(pageIndex, pageSize), order);
+        String nextCursor = users.size() == pageSize ? keysetCursor(property, users.get(users.size() - 1)) : null;
+        Response.ResponseBuilder response = Response.ok(users);
+        PaginationUtil.generatePaginationHttpHeaders(
+            uriInfo.getRequestUriBuilder(),
+            pageIndex,
+            pageSize,
+            nextCursor,
+            userService.countManagedUsers()
+        ).forEach(response::header);
         return response.build();
     }
 
+    /**
+     * @return the cursor of the page after a user: its id, then its value of the sort property unless it has none.
+     */
+    private static String keysetCursor(String property, UserDTO user) {
+        Object value = switch (property) {
+            case "login" -> user.login;
+            case "firstName" -> user.firstName;
+            case "lastName" -> user.lastName;
+            case "email" -> user.email;
+            case "activated" -> user.activated;
+            case "langKey" -> user.langKey;
+            case "createdBy" -> user.createdBy;
+            case "createdDate" -> user.createdDate;
+            case "lastModifiedBy" -> user.lastModifiedBy;
+            case "lastModifiedDate" -> user.lastModifiedDate;
+            default -> null;
+        };
+        return PaginationUtil.encodeCursor(value != null ? user.id + ":" + value : user.id.toString());
+    }
+
+    private static Object parseKeysetValue(String property, String value) {
+        return switch (property) {
+            case "activated" -> Boolean.valueOf(value);
+            case "createdDate", "lastModifiedDate" -> Instant.parse(value);
+            default -> value;
+        };
+    }
+
+    /**
+     * {@code GET /users/export} : export all users, as newline-delimited JSON or as CSV.
+     * <p>
+     * Users are written to the response as they are read from the database, so the export runs in constant
+     * memory whatever the number of users.
+     *
+     * @param format {@code ndjson} or {@code csv}.
+     * @return the {@link Response} with status {@code 200 (OK)} and with body the users, or with status
+     * {@code 400 (Bad Request)} if the format is unknown.
+     */
+    @GET
+    @Path("/export")
+    @Produces({ APPLICATION_NDJSON, CsvUtil.TEXT_CSV })
+    @RolesAllowed(AuthoritiesConstants.ADMIN)
+    public Response exportUsers(@QueryParam("format") @DefaultValue("ndjson") String format) {
+        log.debug("REST request to export all Users as {}", format);
+        final boolean csv;
+        if ("csv".equals(format)) {
+            csv = true;
+        } else if ("ndjson".equals(format)) {
+            csv = false;
+        } else {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        StreamingOutput body = output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write(CsvUtil.record(EXPORT_CSV_HEADER));
+            }
+            try {
+                userService.exportManagedUsers(user -> {
+                    try {
+                        writer.write(csv ? toCsvRecord(user) : jsonb.toJson(user) + '\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+        return Response.ok(body, csv ? CsvUtil.TEXT_CSV + ";charset=UTF-8" : APPLICATION_NDJSON)
+            .header("Content-Disposition", "attachment; filename=\"users." + format + "\"")
+            .build();
+    }
+
+    private static String toCsvRecord(UserDTO user) {
+        return CsvUtil.record(
+            user.id.toString(),
+            user.login,
+            user.firstName,
+            user.lastName,
+            user.email,
+            user.imageUrl,
+            user.activated.toString(),
+            user.langKey,
+            user.createdBy,
+            Objects.toString(user.createdDate, null),
+            user.lastModifiedBy,
+            Objects.toString(user.lastModifiedDate, null),
+            String.join(" ", user.authorities)
+        );
+    }
+
     /**
      * {@code GET /users/:login} : get the "login" user.
      *
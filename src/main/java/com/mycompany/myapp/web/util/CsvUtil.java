@@ -0,0 +1,112 @@
+package com.mycompany.myapp.web.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Utility class for reading and writing <a href="https://tools.ietf.org/html/rfc4180">RFC 4180</a> CSV.
+ */
+public final class CsvUtil {
+
+    public static final String TEXT_CSV = "text/csv";
+
+    private CsvUtil() {}
+
+    /**
+     * Format a CSV record, terminated by a line break.
+     *
+     * @param fields the fields of the record, {@code null} for an empty field.
+     * @return the record.
+     */
+    public static String record(String... fields) {
+        return Arrays.stream(fields).map(CsvUtil::escape).collect(Collectors.joining(",", "", "\r\n"));
+    }
+
+    /**
+     * Read the next CSV record; quoted fields may hold separators, escaped quotes and line breaks.
+     *
+     * @param reader the reader, positioned at the start of a record.
+     * @return the fields of the record, or {@code null} at the end of the input.
+     * @throws IOException              if the input cannot be read.
+     * @throws IllegalArgumentException if the input ends within a quoted field.
+     */
+    public static List<String> readRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                } else if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c < 0) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    /** First characters prefixed with a single quote on export, see {@link #escape}. */
+    private static final String FORMULA_PREFIXED = "=+-@\t\r'";
+
+    /**
+     * Escape a field: fields holding a separator, a quote or a line break are quoted, and fields that a
+     * spreadsheet would evaluate as a formula are prefixed with a single quote. Fields already starting with a
+     * single quote are prefixed too, so that {@link #unescapeFormula} gives back every field as it was.
+     *
+     * @param field the field, {@code null} for an empty field.
+     * @return the escaped field.
+     */
+    public static String escape(String field) {
+        if (field == null || field.isEmpty()) {
+            return "";
+        }
+        String value = FORMULA_PREFIXED.indexOf(field.charAt(0)) >= 0 ? "'" + field : field;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Undo the formula escape of {@link #escape}: remove a single quote followed by a character that it prefixes.
+     *
+     * @param field the field, as read by {@link #readRecord}.
+     * @return the field as it was before the escape.
+     */
+    public static String unescapeFormula(String field) {
+        if (field.length() > 1 && field.charAt(0) == '\'' && FORMULA_PREFIXED.indexOf(field.charAt(1)) >= 0) {
+            return field.substring(1);
+        }
+        return field;
+    }
+}
@@ -0,0 +1,109 @@
+package com.mycompany.myapp.web.util;
+
+import jakarta.ws.rs.core.UriBuilder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for handling pagination.
+ * <p>
+ * Pagination uses the same principles as the <a href="https://developer.github.com/v3/#pagination">GitHub API</a>,
+ * and follow <a href="http://tools.ietf.org/html/rfc5988">RFC 5988 (Link header)</a>.
+ */
+public final class PaginationUtil {
+
+    public static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+    public static final String HEADER_LINK = "Link";
+
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private PaginationUtil() {}
+
+    /**
+     * Generate pagination headers for a page read by offset.
+     *
+     * @param uriBuilder the builder of the request URI.
+     * @param pageIndex  the index of the page, from 0.
+     * @param pageSize   the size of the page.
+     * @param nextCursor the cursor of the next page, added to the {@code next} link, {@code null} for none.
+     * @param totalCount the total number of elements.
+     * @return the {@code X-Total-Count} and {@code Link} headers.
+     */
+    public static Map<String, String> generatePaginationHttpHeaders(
+        UriBuilder uriBuilder,
+        int pageIndex,
+        int pageSize,
+        String nextCursor,
+        long totalCount
+    ) {
+        int lastPage = (int) Math.max(0, (totalCount + pageSize - 1) / pageSize - 1);
+        List<String> links = new ArrayList<>(4);
+        if (pageIndex < lastPage) {
+            links.add(prepareLink(pageUri(uriBuilder, pageIndex + 1, pageSize, nextCursor), "next"));
+        }
+        if (pageIndex > 0) {
+            links.add(prepareLink(pageUri(uriBuilder, pageIndex - 1, pageSize, null), "prev"));
+        }
+        links.add(prepareLink(pageUri(uriBuilder, lastPage, pageSize, null), "last"));
+        links.add(prepareLink(pageUri(uriBuilder, 0, pageSize, null), "first"));
+        return headers(totalCount, links);
+    }
+
+    /**
+     * Generate pagination headers for a page read after a cursor.
+     *
+     * @param uriBuilder the builder of the request URI.
+     * @param nextCursor the cursor of the next page, {@code null} on the last page.
+     * @param totalCount the total number of elements.
+     * @return the {@code X-Total-Count} and {@code Link} headers.
+     */
+    public static Map<String, String> generateKeysetHttpHeaders(UriBuilder uriBuilder, String nextCursor, long totalCount) {
+        List<String> links = new ArrayList<>(2);
+        if (nextCursor != null) {
+            links.add(prepareLink(cursorUri(uriBuilder, nextCursor), "next"));
+        }
+        links.add(prepareLink(cursorUri(uriBuilder, null), "first"));
+        return headers(totalCount, links);
+    }
+
+    public static String encodeCursor(String value) {
+        return CURSOR_ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is not one built by {@link #encodeCursor(String)}.
+     */
+    public static String decodeCursor(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    private static String pageUri(UriBuilder uriBuilder, int pageIndex, int pageSize, String cursor) {
+        UriBuilder builder = uriBuilder.clone();
+        return (cursor != null ? builder.replaceQueryParam("after", cursor) : builder.replaceQueryParam("after"))
+            .replaceQueryParam("page", pageIndex)
+            .replaceQueryParam("size", pageSize)
+            .build()
+            .toString();
+    }
+
+    private static String cursorUri(UriBuilder uriBuilder, String cursor) {
+        UriBuilder builder = uriBuilder.clone().replaceQueryParam("page");
+        return (cursor != null ? builder.replaceQueryParam("after", cursor) : builder.replaceQueryParam("after")).build().toString();
+    }
+
+    private static String prepareLink(String uri, String relType) {
+        return "<" + uri + ">; rel=\"" + relType + "\"";
+    }
+
+    private static Map<String, String> headers(long totalCount, List<String> links) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(HEADER_X_TOTAL_COUNT, Long.toString(totalCount));
+        headers.put(HEADER_LINK, String.join(",", links));
+        return headers;
+    }
+}
@@ -0,0 +1,65 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncPasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private AsyncPasswordHasher asyncPasswordHasher;
+
+    @BeforeEach
+    void init() {
+        BCryptPasswordHasher passwordHasher = mock(BCryptPasswordHasher.class);
+        when(passwordHasher.hash(anyString())).thenAnswer(invocation -> {
+            release.await();
+            return "hashed";
+        });
+        asyncPasswordHasher = new AsyncPasswordHasher(passwordHasher, 1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        asyncPasswordHasher.shutdown();
+    }
+
+    @Test
+    void shouldRejectImmediatelyWhenQueueIsFull() {
+        CompletionStage<String> running = asyncPasswordHasher.hash("running");
+        CompletionStage<String> queued = asyncPasswordHasher.hash("queued");
+        CompletionStage<String> rejected = asyncPasswordHasher.hash("rejected");
+
+        assertThat(rejected.toCompletableFuture()).isCompletedExceptionally();
+        assertThat(rejected.toCompletableFuture().handle((it, throwable) -> throwable).join()).isInstanceOf(
+            PasswordHashingRejectedException.class
+        );
+        assertThat(meterRegistry.get("password.hasher.rejected").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("password.hasher.queue.size").gauge().value()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.toCompletableFuture().join()).isEqualTo("hashed");
+        assertThat(queued.toCompletableFuture().join()).isEqualTo("hashed");
+    }
+
+    @Test
+    void shouldRecordQueueWaitTime() throws ExecutionException, InterruptedException {
+        release.countDown();
+        asyncPasswordHasher.hash("password").toCompletableFuture().get();
+
+        assertThat(meterRegistry.get("password.hasher.queue.wait").timer().count()).isEqualTo(1L);
+    }
+}
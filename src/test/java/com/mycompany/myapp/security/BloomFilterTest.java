@@ -0,0 +1,48 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void shouldContainEveryPutValue() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+        }
+        assertThat(filter.insertions()).isEqualTo(10_000);
+    }
+
+    @Test
+    void shouldKeepFalsePositivesNearTheConfiguredProbability() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("unknown" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.falsePositiveProbability()).isBetween(0.005, 0.015);
+        // about 9.6 bits per value for 1%
+        assertThat(filter.memoryBytes()).isBetween(11_000L, 13_000L);
+    }
+
+    @Test
+    void shouldContainNothingWhenEmpty() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertThat(filter.mightContain("admin")).isFalse();
+        assertThat(filter.falsePositiveProbability()).isZero();
+    }
+}
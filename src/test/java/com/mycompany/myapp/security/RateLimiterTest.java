@@ -0,0 +1,84 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void init() {
+        RateLimiter.Limits limits = new RateLimiter.Limits(
+            new RateLimiter.Rate(4, Duration.ofSeconds(4)),
+            new RateLimiter.Rate(2, Duration.ofSeconds(10))
+        );
+        rateLimiter = new RateLimiter(
+            true,
+            Map.of(RateLimiter.Endpoint.AUTHENTICATE, limits, RateLimiter.Endpoint.REGISTER, limits, RateLimiter.Endpoint.RESET_PASSWORD, limits),
+            100,
+            nanoTime::get,
+            meterRegistry
+        );
+    }
+
+    @Test
+    void shouldRejectAClientOnceItsBucketIsEmpty() {
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.check(RateLimiter.Endpoint.AUTHENTICATE, "10.0.0.1", null);
+        }
+
+        assertThatThrownBy(() -> rateLimiter.check(RateLimiter.Endpoint.AUTHENTICATE, "10.0.0.1", null))
+            .isInstanceOf(RateLimitExceededException.class)
+            .satisfies(e -> {
+                assertThat(((RateLimitExceededException) e).getRetryAfterSeconds()).isEqualTo(1);
+                assertThat(((RateLimitExceededException) e).getResponse().getStatus()).isEqualTo(429);
+                assertThat(((RateLimitExceededException) e).getResponse().getHeaderString("Retry-After")).isEqualTo("1");
+            });
+        assertThat(meterRegistry.get("rate.limit.rejected").tag("endpoint", "authenticate").counter().count()).isEqualTo(1.0);
+
+        rateLimiter.check(RateLimiter.Endpoint.AUTHENTICATE, "10.0.0.2", null);
+        rateLimiter.check(RateLimiter.Endpoint.REGISTER, "10.0.0.1", null);
+    }
+
+    @Test
+    void shouldRefillTheBucketOverThePeriod() {
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.check(RateLimiter.Endpoint.AUTHENTICATE, "10.0.0.1", null);
+        }
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        rateLimiter.check(RateLimiter.Endpoint.AUTHENTICATE, "10.0.0.1", null);
+        assertThatThrownBy(() -> rateLimiter.check(RateLimiter.Endpoint.AUTHENTICATE, "10.0.0.1", null)).isInstanceOf(
+            RateLimitExceededException.class
+        );
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.check(RateLimiter.Endpoint.AUTHENTICATE, "10.0.0.1", null);
+        }
+    }
+
+    @Test
+    void shouldRejectALoginFromAnyClient() {
+        rateLimiter.check(RateLimiter.Endpoint.AUTHENTICATE, "10.0.0.1", "admin");
+        rateLimiter.check(RateLimiter.Endpoint.AUTHENTICATE, "10.0.0.2", "Admin");
+
+        assertThatThrownBy(() -> rateLimiter.check(RateLimiter.Endpoint.AUTHENTICATE, "10.0.0.3", "ADMIN"))
+            .isInstanceOf(RateLimitExceededException.class)
+            .satisfies(e -> assertThat(((RateLimitExceededException) e).getRetryAfterSeconds()).isEqualTo(5));
+        rateLimiter.check(RateLimiter.Endpoint.AUTHENTICATE, "10.0.0.3", "user");
+    }
+}
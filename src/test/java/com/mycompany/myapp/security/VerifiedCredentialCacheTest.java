@@ -0,0 +1,88 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.config.JHipsterProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.security.runtime.QuarkusPrincipal;
+import io.quarkus.security.runtime.QuarkusSecurityIdentity;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class VerifiedCredentialCacheTest {
+
+    private VerifiedCredentialCache credentialCache;
+
+    private QuarkusSecurityIdentity identity;
+
+    private TransactionSynchronizationRegistry registry;
+
+    @BeforeEach
+    void init() {
+        JHipsterProperties jHipsterProperties = mock(JHipsterProperties.class, RETURNS_DEEP_STUBS);
+        when(jHipsterProperties.security().authentication().credentialCache().enabled()).thenReturn(true);
+        when(jHipsterProperties.security().authentication().credentialCache().timeToLive()).thenReturn(Duration.ofMinutes(1));
+        when(jHipsterProperties.security().authentication().credentialCache().maximumSize()).thenReturn(100L);
+        registry = mock(TransactionSynchronizationRegistry.class);
+        when(registry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        credentialCache = new VerifiedCredentialCache(jHipsterProperties, new SimpleMeterRegistry(), registry);
+        identity = QuarkusSecurityIdentity.builder().setPrincipal(new QuarkusPrincipal("john")).addRole(AuthoritiesConstants.USER).build();
+    }
+
+    @Test
+    void shouldOnlyMatchTheSamePassword() {
+        credentialCache.put("John", "secret", identity, credentialCache.generation());
+
+        assertThat(credentialCache.get("john", "secret")).contains(identity);
+        assertThat(credentialCache.get("john", "other")).isEmpty();
+        assertThat(credentialCache.get("jane", "secret")).isEmpty();
+    }
+
+    @Test
+    void shouldInvalidateEveryEntryOfTheUser() {
+        credentialCache.put("john", "secret", identity, credentialCache.generation());
+        credentialCache.put("john@example.com", "secret", identity, credentialCache.generation());
+
+        credentialCache.invalidate("john");
+
+        assertThat(credentialCache.get("john", "secret")).isEmpty();
+        assertThat(credentialCache.get("john@example.com", "secret")).isEmpty();
+    }
+
+    @Test
+    void shouldNotCacheALoginThatRacedWithAPasswordChange() {
+        // the login reads the generation and loads the user with its old hash, then waits for BCrypt
+        long generation = credentialCache.generation();
+
+        // meanwhile the password change evicts in its transaction, and again once it commits
+        when(registry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        credentialCache.invalidate("john");
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(registry).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+
+        // the login verifies the old password and completes
+        credentialCache.put("john", "old", identity, generation);
+
+        assertThat(credentialCache.get("john", "old")).isEmpty();
+    }
+
+    @Test
+    void shouldCacheALoginThatStartedAfterAPasswordChange() {
+        credentialCache.invalidate("john");
+        long generation = credentialCache.generation();
+
+        credentialCache.put("john", "new", identity, generation);
+
+        assertThat(credentialCache.get("john", "new")).contains(identity);
+    }
+}
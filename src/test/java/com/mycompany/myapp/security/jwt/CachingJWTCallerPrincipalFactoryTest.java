@@ -0,0 +1,116 @@
+package com.mycompany.myapp.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.config.JHipsterProperties;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.security.runtime.QuarkusPrincipal;
+import io.quarkus.security.runtime.QuarkusSecurityIdentity;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.auth.principal.JWTCallerPrincipal;
+import io.smallrye.jwt.auth.principal.ParseException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachingJWTCallerPrincipalFactoryTest {
+
+    private static final String ISSUER = "https://www.jhipster.tech";
+
+    private JHipsterProperties jHipsterProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private JWTAuthContextInfo authContextInfo;
+
+    private KeyPair keyPair;
+
+    private JwtKeyring keyring;
+
+    private String token;
+
+    @BeforeEach
+    void init() throws Exception {
+        jHipsterProperties = mock(JHipsterProperties.class, RETURNS_DEEP_STUBS);
+        when(jHipsterProperties.security().authentication().jwt().verifiedTokenCache().enabled()).thenReturn(true);
+        when(jHipsterProperties.security().authentication().jwt().verifiedTokenCache().maximumSize()).thenReturn(100L);
+        meterRegistry = new SimpleMeterRegistry();
+
+        keyPair = generateRsaKeyPair();
+        keyring = JwtKeyring.of(keyPair.getPrivate(), SignatureAlgorithm.RS256);
+        token = createToken(keyPair);
+        authContextInfo = new JWTAuthContextInfo(keyPair.getPublic(), ISSUER);
+    }
+
+    @Test
+    void shouldReturnTheSamePrincipalForARepeatedToken() throws Exception {
+        var factory = new CachingJWTCallerPrincipalFactory(jHipsterProperties, keyring, meterRegistry);
+
+        JWTCallerPrincipal first = factory.parse(token, authContextInfo);
+        JWTCallerPrincipal second = factory.parse(token, authContextInfo);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getName()).isEqualTo("john");
+        assertThat(second.getGroups()).containsExactly(AuthoritiesConstants.USER);
+        assertThat(meterRegistry.get("jwt.verification").timer().count()).isEqualTo(1);
+        assertThat(
+            meterRegistry.get("cache.gets").tag("cache", "verified-tokens").tag("result", "hit").functionCounter().count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void shouldVerifyEveryTimeWhenDisabled() throws Exception {
+        when(jHipsterProperties.security().authentication().jwt().verifiedTokenCache().enabled()).thenReturn(false);
+        var factory = new CachingJWTCallerPrincipalFactory(jHipsterProperties, keyring, meterRegistry);
+
+        JWTCallerPrincipal first = factory.parse(token, authContextInfo);
+        JWTCallerPrincipal second = factory.parse(token, authContextInfo);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo(first.getName());
+        assertThat(meterRegistry.get("jwt.verification").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldVerifyATokenSignedByARetiredKeyWithTheKeyringKey() throws Exception {
+        KeyPair nextKeyPair = generateRsaKeyPair();
+        keyring = new JwtKeyring(SignatureAlgorithm.RS256, PrivateKeyResource.of(nextKeyPair.getPrivate()), List.of(keyPair.getPublic()));
+        var factory = new CachingJWTCallerPrincipalFactory(jHipsterProperties, keyring, meterRegistry);
+        JWTAuthContextInfo nextAuthContextInfo = new JWTAuthContextInfo(nextKeyPair.getPublic(), ISSUER);
+
+        assertThat(factory.parse(token, nextAuthContextInfo).getName()).isEqualTo("john");
+        assertThat(factory.parse(createToken(nextKeyPair), nextAuthContextInfo).getName()).isEqualTo("john");
+    }
+
+    @Test
+    void shouldNotCacheATamperedToken() {
+        var factory = new CachingJWTCallerPrincipalFactory(jHipsterProperties, keyring, meterRegistry);
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        assertThatThrownBy(() -> factory.parse(tampered, authContextInfo)).isInstanceOf(ParseException.class);
+        assertThatThrownBy(() -> factory.parse(tampered, authContextInfo)).isInstanceOf(ParseException.class);
+        assertThat(meterRegistry.get("jwt.verification").timer().count()).isEqualTo(2);
+    }
+
+    private static KeyPair generateRsaKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static String createToken(KeyPair keyPair) throws Exception {
+        TokenProvider tokenProvider = new TokenProvider(keyPair.getPrivate(), SignatureAlgorithm.RS256, ISSUER, 60_000, 60_000, null);
+        QuarkusSecurityIdentity identity = QuarkusSecurityIdentity.builder()
+            .setPrincipal(new QuarkusPrincipal("john"))
+            .addRole(AuthoritiesConstants.USER)
+            .build();
+        return tokenProvider.createToken(identity, false);
+    }
+}
@@ -0,0 +1,62 @@
+package com.mycompany.myapp.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.List;
+import org.jose4j.jwk.JsonWebKey;
+import org.jose4j.jwk.JsonWebKeySet;
+import org.junit.jupiter.api.Test;
+
+class JwtKeyringTest {
+
+    @Test
+    void shouldPublishTheSigningKeyAndTheVerificationOnlyKeys() throws Exception {
+        KeyPair retired = generateRsaKeyPair();
+        KeyPair active = generateRsaKeyPair();
+        var keyring = new JwtKeyring(SignatureAlgorithm.RS256, PrivateKeyResource.of(active.getPrivate()), List.of(retired.getPublic()));
+
+        JwtKeyring.Keys keys = keyring.current();
+
+        assertThat(keys.signingKeyId()).isEqualTo(JwtKeyring.thumbprint(active.getPublic()));
+        assertThat(keys.verificationKeys()).containsOnlyKeys(keys.signingKeyId(), JwtKeyring.thumbprint(retired.getPublic()));
+        List<JsonWebKey> jwks = new JsonWebKeySet(keys.jwks()).getJsonWebKeys();
+        assertThat(jwks).extracting(JsonWebKey::getKeyId).containsExactly(keys.signingKeyId(), JwtKeyring.thumbprint(retired.getPublic()));
+        assertThat(jwks).extracting(JsonWebKey::getAlgorithm).containsOnly("RS256");
+        assertThat(keys.jwks()).doesNotContain("\"d\"");
+    }
+
+    @Test
+    void shouldNotDuplicateTheSigningKey() throws Exception {
+        KeyPair active = generateRsaKeyPair();
+        var keyring = new JwtKeyring(SignatureAlgorithm.RS256, PrivateKeyResource.of(active.getPrivate()), List.of(active.getPublic()));
+
+        assertThat(keyring.current().verificationKeys()).hasSize(1);
+    }
+
+    @Test
+    void shouldMatchAnEcSigningKeyWithItsVerificationKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair other = generator.generateKeyPair();
+        KeyPair active = generator.generateKeyPair();
+        var keyring = new JwtKeyring(
+            SignatureAlgorithm.ES256,
+            PrivateKeyResource.of(active.getPrivate()),
+            List.of(other.getPublic(), active.getPublic())
+        );
+
+        JwtKeyring.Keys keys = keyring.current();
+
+        assertThat(keys.signingKeyId()).isEqualTo(JwtKeyring.thumbprint(active.getPublic()));
+        assertThat(keys.verificationKeys()).hasSize(2);
+    }
+
+    private static KeyPair generateRsaKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+}
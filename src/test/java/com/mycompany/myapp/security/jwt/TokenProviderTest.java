@@ -0,0 +1,192 @@
+package com.mycompany.myapp.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.config.JHipsterProperties;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import io.quarkus.security.runtime.QuarkusPrincipal;
+import io.quarkus.security.runtime.QuarkusSecurityIdentity;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import org.jose4j.jws.JsonWebSignature;
+import org.jose4j.jwt.JwtClaims;
+import org.jose4j.jwt.consumer.JwtConsumer;
+import org.jose4j.jwt.consumer.JwtConsumerBuilder;
+import org.jose4j.jwx.JsonWebStructure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenProviderTest {
+
+    private static final String ISSUER = "https://www.jhipster.tech";
+
+    private JHipsterProperties jHipsterProperties;
+
+    private QuarkusSecurityIdentity identity;
+
+    @BeforeEach
+    void init() {
+        jHipsterProperties = mock(JHipsterProperties.class, RETURNS_DEEP_STUBS);
+        when(jHipsterProperties.security().authentication().jwt().privateKey().location()).thenReturn("/jwt/privateKey.pem");
+        when(jHipsterProperties.security().authentication().jwt().issuer()).thenReturn(ISSUER);
+        when(jHipsterProperties.security().authentication().jwt().privateKey().reloadInterval()).thenReturn(Duration.ZERO);
+        when(jHipsterProperties.security().authentication().jwt().verificationKeys()).thenReturn(
+            Optional.of(List.of("classpath:META-INF/resources/publicKey.pem"))
+        );
+        when(jHipsterProperties.security().authentication().jwt().algorithm()).thenReturn("RS256");
+        when(jHipsterProperties.security().authentication().jwt().tokenValidityInSeconds()).thenReturn(60L);
+        when(jHipsterProperties.security().authentication().jwt().tokenValidityInSecondsForRememberMe()).thenReturn(3600L);
+        when(jHipsterProperties.security().authentication().jwt().tokenCache().timeToLive()).thenReturn(Duration.ofSeconds(10));
+        when(jHipsterProperties.security().authentication().jwt().tokenCache().maximumSize()).thenReturn(100L);
+        identity = QuarkusSecurityIdentity.builder()
+            .setPrincipal(new QuarkusPrincipal("john"))
+            .addRole(AuthoritiesConstants.USER)
+            .addRole(AuthoritiesConstants.ADMIN)
+            .build();
+    }
+
+    @Test
+    void shouldCreateTokenVerifiableWithThePublicKey() throws Exception {
+        var tokenProvider = newTokenProvider();
+
+        String token = tokenProvider.createToken(identity, false);
+
+        JwtConsumer consumer = new JwtConsumerBuilder()
+            .setVerificationKey(readPublicKey())
+            .setExpectedIssuer(ISSUER)
+            .setRequireExpirationTime()
+            .setRequireSubject()
+            .build();
+        JwtClaims claims = consumer.processToClaims(token);
+        assertThat(claims.getSubject()).isEqualTo("john");
+        assertThat(claims.getStringListClaimValue(TokenProvider.GROUPS_KEY)).containsExactlyInAnyOrder(
+            AuthoritiesConstants.USER,
+            AuthoritiesConstants.ADMIN
+        );
+        assertThat(claims.getExpirationTime().getValue() - claims.getIssuedAt().getValue()).isEqualTo(60L);
+
+        JsonWebSignature jws = (JsonWebSignature) JsonWebStructure.fromCompactSerialization(token);
+        assertThat(jws.getKeyIdHeaderValue()).isEqualTo(tokenProvider.getKeyId());
+        assertThat(jws.getHeader("typ")).isEqualTo("JWT");
+    }
+
+    @Test
+    void shouldUseAStableKeyId() throws Exception {
+        assertThat(newTokenProvider().getKeyId()).isEqualTo(newTokenProvider().getKeyId());
+    }
+
+    @Test
+    void shouldReuseTokensOnlyWhenTheCacheIsEnabled() throws Exception {
+        var clock = new AdjustableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        var uncachedProvider = new TokenProvider(jHipsterProperties, new JwtKeyring(jHipsterProperties), clock);
+        when(jHipsterProperties.security().authentication().jwt().tokenCache().enabled()).thenReturn(true);
+        var cachedProvider = new TokenProvider(jHipsterProperties, new JwtKeyring(jHipsterProperties), clock);
+
+        String cached = cachedProvider.createToken(identity, false);
+        String uncached = uncachedProvider.createToken(identity, false);
+        clock.advance(Duration.ofSeconds(5));
+
+        assertThat(cachedProvider.createToken(identity, false)).isSameAs(cached);
+        assertThat(cachedProvider.createToken(identity, true)).isNotEqualTo(cached);
+        // a token issued a second later has another iat, so only a cached one can be equal
+        assertThat(uncachedProvider.createToken(identity, false)).isNotEqualTo(uncached);
+    }
+
+    @Test
+    void shouldSignWithEcdsa() throws Exception {
+        assertSignedWith(SignatureAlgorithm.ES256, KeyPairGenerator.getInstance("EC"), new ECGenParameterSpec("secp256r1"));
+    }
+
+    @Test
+    void shouldSignWithEdDsa() throws Exception {
+        assertSignedWith(SignatureAlgorithm.EDDSA, KeyPairGenerator.getInstance("Ed25519"), null);
+    }
+
+    @Test
+    void shouldRejectAKeyOfAnotherType() {
+        assertThatThrownBy(() -> {
+            KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+            new TokenProvider(keyPair.getPrivate(), SignatureAlgorithm.RS256, ISSUER, 60_000, 60_000, null);
+        }).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TokenProvider newTokenProvider() throws Exception {
+        return new TokenProvider(jHipsterProperties, new JwtKeyring(jHipsterProperties));
+    }
+
+    private void assertSignedWith(SignatureAlgorithm algorithm, KeyPairGenerator generator, AlgorithmParameterSpec parameters)
+        throws Exception {
+        if (parameters != null) {
+            generator.initialize(parameters);
+        }
+        KeyPair keyPair = generator.generateKeyPair();
+        var tokenProvider = new TokenProvider(keyPair.getPrivate(), algorithm, ISSUER, 60_000, 60_000, null);
+
+        String token = tokenProvider.createToken(identity, false);
+
+        JsonWebSignature jws = (JsonWebSignature) JsonWebStructure.fromCompactSerialization(token);
+        assertThat(jws.getAlgorithmHeaderValue()).isEqualTo(algorithm.jwsName());
+        JwtClaims claims = new JwtConsumerBuilder()
+            .setVerificationKey(keyPair.getPublic())
+            .setExpectedIssuer(ISSUER)
+            .build()
+            .processToClaims(token);
+        assertThat(claims.getSubject()).isEqualTo("john");
+    }
+
+    private static final class AdjustableClock extends Clock {
+
+        private Instant instant;
+
+        private AdjustableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    private static PublicKey readPublicKey() throws Exception {
+        try (InputStream is = TokenProviderTest.class.getResourceAsStream("/META-INF/resources/publicKey.pem")) {
+            String pem = new String(is.readAllBytes(), StandardCharsets.US_ASCII)
+                .replaceAll("-----(BEGIN|END) PUBLIC KEY-----", "")
+                .replaceAll("\\s", "");
+            return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(pem)));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.config.JHipsterProperties;
+import com.mycompany.myapp.service.dto.UserDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AccountCacheTest {
+
+    private AccountCache accountCache;
+
+    private UserDTO john;
+
+    private AtomicInteger loads;
+
+    private Function<String, Optional<UserDTO>> loader;
+
+    @BeforeEach
+    void init() {
+        JHipsterProperties jHipsterProperties = mock(JHipsterProperties.class, RETURNS_DEEP_STUBS);
+        when(jHipsterProperties.account().cache().enabled()).thenReturn(true);
+        when(jHipsterProperties.account().cache().timeToLive()).thenReturn(Duration.ofMinutes(1));
+        when(jHipsterProperties.account().cache().maximumSize()).thenReturn(100L);
+        TransactionSynchronizationRegistry registry = mock(TransactionSynchronizationRegistry.class);
+        when(registry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        accountCache = new AccountCache(JsonbBuilder.create(), jHipsterProperties, new SimpleMeterRegistry(), registry);
+        john = new UserDTO();
+        john.login = "john";
+        john.firstName = "John";
+        loads = new AtomicInteger();
+        loader = login -> {
+            loads.incrementAndGet();
+            return login.equals(john.login) ? Optional.of(copy(john)) : Optional.empty();
+        };
+    }
+
+    @Test
+    void shouldLoadTheAccountOnce() {
+        AccountCache.Account account = accountCache.get("John", loader).orElseThrow();
+
+        assertThat(new String(account.json(), StandardCharsets.UTF_8)).contains("\"firstName\":\"John\"");
+        assertThat(accountCache.get("john", loader)).containsSame(account);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldNotCacheUnknownAccounts() {
+        assertThat(accountCache.get("jane", loader)).isEmpty();
+        assertThat(accountCache.get("jane", loader)).isEmpty();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void shouldChangeTheTagWhenTheAccountChanges() {
+        AccountCache.Account account = accountCache.get("john", loader).orElseThrow();
+
+        john.firstName = "Johnny";
+        accountCache.invalidate("JOHN");
+        AccountCache.Account changed = accountCache.get("john", loader).orElseThrow();
+
+        assertThat(loads).hasValue(2);
+        assertThat(changed.etag()).isNotEqualTo(account.etag());
+        assertThat(new String(changed.json(), StandardCharsets.UTF_8)).contains("\"firstName\":\"Johnny\"");
+    }
+
+    private static UserDTO copy(UserDTO user) {
+        UserDTO copy = new UserDTO();
+        copy.login = user.login;
+        copy.firstName = user.firstName;
+        return copy;
+    }
+}
@@ -0,0 +1,89 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.domain.OutboxMail;
+import com.mycompany.myapp.domain.User;
+import io.quarkus.liquibase.LiquibaseFactory;
+import io.quarkus.mailer.MockMailbox;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.ext.mail.MailMessage;
+import jakarta.inject.Inject;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import liquibase.Liquibase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Integration tests for {@link MailOutboxDispatcher}.
+ */
+@QuarkusTest
+public class MailOutboxDispatcherTest {
+
+    @Inject
+    LiquibaseFactory liquibaseFactory;
+
+    @Inject
+    MockMailbox mailbox;
+
+    @Inject
+    MailOutboxDispatcher mailOutboxDispatcher;
+
+    @BeforeEach
+    public void databaseFixture() {
+        try (Liquibase liquibase = liquibaseFactory.createLiquibase()) {
+            liquibase.dropAll();
+            liquibase.validate();
+            liquibase.update(liquibaseFactory.createContexts(), liquibaseFactory.createLabels());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        mailbox.clear();
+    }
+
+    @Test
+    void assertThatDueMailsAreSentAndDeleted() {
+        QuarkusTransaction.requiringNew()
+            .run(() -> {
+                OutboxMail.queue(OutboxMail.Type.ACTIVATION, user("john"), "12345");
+                OutboxMail.queue(OutboxMail.Type.PASSWORD_RESET, user("jane"), "67890");
+            });
+
+        mailOutboxDispatcher.dispatch();
+
+        List<MailMessage> activation = mailbox.getMailMessagesSentTo("john@localhost");
+        assertThat(activation).hasSize(1);
+        assertThat(activation.get(0).getHtml()).contains("key=12345");
+        List<MailMessage> reset = mailbox.getMailMessagesSentTo("jane@localhost");
+        assertThat(reset).hasSize(1);
+        assertThat(reset.get(0).getHtml()).contains("key=67890");
+        assertThat(QuarkusTransaction.requiringNew().call(OutboxMail::count)).isZero();
+    }
+
+    @Test
+    void assertThatMailsNotDueAreKept() {
+        QuarkusTransaction.requiringNew()
+            .run(() -> {
+                OutboxMail.queue(OutboxMail.Type.CREATION, user("later"), "12345");
+                OutboxMail.queue(OutboxMail.Type.CREATION, user("abandoned"), "67890");
+                OutboxMail.<OutboxMail>find("login", "later").firstResult().nextAttemptDate = Instant.now().plus(1, ChronoUnit.HOURS);
+                OutboxMail.<OutboxMail>find("login", "abandoned").firstResult().nextAttemptDate = null;
+            });
+
+        mailOutboxDispatcher.dispatch();
+
+        assertThat(mailbox.getTotalMessagesSent()).isZero();
+        assertThat(QuarkusTransaction.requiringNew().call(OutboxMail::count)).isEqualTo(2);
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.login = login;
+        user.email = login + "@localhost";
+        user.langKey = "en";
+        return user;
+    }
+}
@@ -2,7 +2,10 @@ package com.mycompany.myapp.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.mycompany.myapp.domain.OutboxMail;
 import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.service.dto.UserMailDTO;
+import io.quarkus.mailer.Mail;
 import io.quarkus.mailer.MockMailbox;
 import io.quarkus.test.junit.QuarkusTest;
 import io.vertx.ext.mail.MailMessage;
@@ -48,40 +51,73 @@ public class MailServiceTest {
     void should_containsActivationInfosWhenCallSendActivationEmail() {
         User user = user();
 
-        mailService.sendActivationEmail(user);
+        mailService.sendActivationEmail(user, "12345");
 
         List<MailMessage> sent = mailbox.getMailMessagesSentTo(user.email);
         assertThat(sent).hasSize(1);
         MailMessage actual = sent.get(0);
-        assertThat(actual.getHtml()).contains("Your JHipster account has been created, please click on the URL below to activate it:");
-        assertThat(actual.getSubject()).isEqualTo("jhipsterSampleApplication account activation is required");
+        assertThat(actual.getHtml()).contains("Your microquark account has been created, please click on the URL below to activate it:");
+        assertThat(actual.getSubject()).isEqualTo("microquark account activation");
     }
 
     @Test
     void should_containsActivationInfosWhenCallSendCreationEmail() {
         User user = user();
 
-        mailService.sendCreationEmail(user);
+        mailService.sendCreationEmail(user, "12345");
 
         List<MailMessage> sent = mailbox.getMailMessagesSentTo(user.email);
         assertThat(sent).hasSize(1);
         MailMessage actual = sent.get(0);
-        assertThat(actual.getHtml()).contains("Your JHipster account has been created, please click on the URL below to access it:");
-        assertThat(actual.getSubject()).isEqualTo("jhipsterSampleApplication account activation is required");
+        assertThat(actual.getHtml()).contains("Your microquark account has been created, please click on the URL below to access it:");
+        assertThat(actual.getSubject()).isEqualTo("microquark account activation");
     }
 
     @Test
     void should_containsResetInfosWhenCallSendPasswordResetMail() {
         User user = user();
 
-        mailService.sendPasswordResetMail(user);
+        mailService.sendPasswordResetMail(user, "12345");
 
         List<MailMessage> sent = mailbox.getMailMessagesSentTo(user.email);
         assertThat(sent).hasSize(1);
         MailMessage actual = sent.get(0);
         assertThat(actual.getHtml()).contains(
-            "For your JHipster account a password reset was requested, please click on the URL below to reset it:"
+            "For your microquark account a password reset was requested, please click on the URL below to reset it:"
+        );
+        assertThat(actual.getSubject()).isEqualTo("microquark password reset");
+    }
+
+    @Test
+    void should_renderEachMailOfABatchInOrder() {
+        List<Mail> rendered = mailService.render(
+            List.of(
+                new UserMailDTO(OutboxMail.Type.ACTIVATION, "john", "john.doe@example.com", "en", "12345"),
+                new UserMailDTO(OutboxMail.Type.PASSWORD_RESET, "jane", "jane.doe@example.com", "en", "67890")
+            )
+        );
+
+        assertThat(rendered).hasSize(2);
+        assertThat(rendered.get(0).getTo()).containsExactly("john.doe@example.com");
+        assertThat(rendered.get(0).getSubject()).isEqualTo("microquark account activation");
+        assertThat(rendered.get(0).getHtml()).contains("Dear john").contains("/account/activate?key=12345");
+        assertThat(rendered.get(1).getTo()).containsExactly("jane.doe@example.com");
+        assertThat(rendered.get(1).getSubject()).isEqualTo("microquark password reset");
+        assertThat(rendered.get(1).getHtml()).contains("Dear jane").contains("/account/reset/finish?key=67890");
+    }
+
+    @Test
+    void should_renderInTheDefaultLanguageWhenTheLanguageHasNoBundle() {
+        List<Mail> rendered = mailService.render(
+            List.of(
+                new UserMailDTO(OutboxMail.Type.CREATION, "john", "john.doe@example.com", "xx", "12345"),
+                new UserMailDTO(OutboxMail.Type.CREATION, "jane", "jane.doe@example.com", null, "67890")
+            )
+        );
+
+        assertThat(rendered).extracting(Mail::getSubject).containsOnly("microquark account activation");
+        assertThat(rendered).allSatisfy(mail ->
+            assertThat(mail.getHtml()).contains("<html lang=\"en\">").contains("Your microquark account has been created")
         );
-        assertThat(actual.getSubject()).isEqualTo("jhipsterSampleApplication password reset");
     }
 }
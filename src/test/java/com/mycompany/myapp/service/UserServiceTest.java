@@ -0,0 +1,108 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.liquibase.LiquibaseFactory;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+import liquibase.Liquibase;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Integration tests for {@link UserService}.
+ */
+@QuarkusTest
+public class UserServiceTest {
+
+    @Inject
+    LiquibaseFactory liquibaseFactory;
+
+    @Inject
+    UserService userService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void databaseFixture() {
+        try (Liquibase liquibase = liquibaseFactory.createLiquibase()) {
+            liquibase.dropAll();
+            liquibase.validate();
+            liquibase.update(liquibaseFactory.createContexts(), liquibaseFactory.createLabels());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void assertThatNotActivatedUsersWithNotNullActivationKeyCreatedBefore3DaysAreDeleted() {
+        Instant now = Instant.now();
+        QuarkusTransaction.requiringNew()
+            .run(() -> {
+                user("stale", false, "12345", now.minus(4, ChronoUnit.DAYS)).persist();
+                user("recent", false, "12346", now.minus(1, ChronoUnit.DAYS)).persist();
+                user("nokey", false, null, now.minus(4, ChronoUnit.DAYS)).persist();
+                user("activated", true, null, now.minus(4, ChronoUnit.DAYS)).persist();
+            });
+
+        userService.removeNotActivatedUsers();
+
+        QuarkusTransaction.requiringNew()
+            .run(() -> {
+                assertThat(User.findOneByLogin("stale")).isEmpty();
+                assertThat(User.findOneByLogin("recent")).isPresent();
+                assertThat(User.findOneByLogin("nokey")).isPresent();
+                assertThat(User.findOneByLogin("activated")).isPresent();
+            });
+    }
+
+    @Test
+    void assertThatNotActivatedUsersAreDeletedInSeveralBatches() {
+        Instant createdDate = Instant.now().minus(4, ChronoUnit.DAYS);
+        QuarkusTransaction.requiringNew()
+            .run(() -> {
+                // five stale users with a batch size of 2, for two full batches and a last partial one
+                for (int i = 0; i < 5; i++) {
+                    user("stale" + i, false, "1234" + i, createdDate).persist();
+                }
+                user("activated", true, null, createdDate).persist();
+            });
+        DistributionSummary purgedUsers = meterRegistry.get("user.purge.rows").summary();
+        long runs = purgedUsers.count();
+        double purged = purgedUsers.totalAmount();
+
+        userService.removeNotActivatedUsers();
+
+        QuarkusTransaction.requiringNew()
+            .run(() -> {
+                assertThat(User.count("activated = false")).isZero();
+                assertThat(User.findOneByLogin("activated")).isPresent();
+            });
+        assertThat(purgedUsers.count()).isEqualTo(runs + 1);
+        assertThat(purgedUsers.totalAmount()).isEqualTo(purged + 5);
+    }
+
+    private static User user(String login, boolean activated, String activationKey, Instant createdDate) {
+        User user = new User();
+        user.login = login;
+        user.password = RandomStringUtils.randomAlphanumeric(60);
+        user.email = login + "@localhost";
+        user.activated = activated;
+        user.activationKey = activationKey;
+        user.createdDate = createdDate;
+        user.authorities = new HashSet<>(Set.of(Authority.<Authority>findById(AuthoritiesConstants.USER)));
+        return user;
+    }
+}
@@ -26,6 +26,10 @@ public abstract class IntegrationTestBase {
 
     private static final Pattern ACTIVATION_KEY_PATTERN = Pattern.compile(".*key=(\\w+).*", Pattern.MULTILINE);
 
+    private static final int MAIL_SERVER_ATTEMPTS = 20;
+
+    private static final long MAIL_SERVER_POLL_INTERVAL_MILLIS = 500;
+
     protected void registerAndActivateUser(ManagedUserVM user) {
         registerUser(user);
         activateUser(user.email);
@@ -80,15 +84,28 @@ public abstract class IntegrationTestBase {
     }
 
     private String getAccountActivationKeyFromEmailMessage(String toAddress) {
-        Response mailServerResponse = given()
-            .contentType(APPLICATION_JSON)
-            .when()
-            .get(getMailServerUrl() + "api/v2/search?kind=to&query={toAddress}&limit=1", toAddress);
-
-        assertThat(mailServerResponse.statusCode()).isEqualTo(OK.getStatusCode());
-        assertThat(mailServerResponse.getContentType()).isEqualTo(APPLICATION_JSON);
-
-        JsonObject jsonResponse = new JsonObject(mailServerResponse.getBody().asString());
+        // the activation mail is sent from the outbox, shortly after the registration
+        JsonObject jsonResponse = null;
+        for (int attempt = 0; attempt < MAIL_SERVER_ATTEMPTS; attempt++) {
+            Response mailServerResponse = given()
+                .contentType(APPLICATION_JSON)
+                .when()
+                .get(getMailServerUrl() + "api/v2/search?kind=to&query={toAddress}&limit=1", toAddress);
+
+            assertThat(mailServerResponse.statusCode()).isEqualTo(OK.getStatusCode());
+            assertThat(mailServerResponse.getContentType()).isEqualTo(APPLICATION_JSON);
+
+            jsonResponse = new JsonObject(mailServerResponse.getBody().asString());
+            if (!"0".equals(jsonResponse.getString("count"))) {
+                break;
+            }
+            try {
+                Thread.sleep(MAIL_SERVER_POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting for the activation mail");
+            }
+        }
         assertThat(jsonResponse.getString("count")).isEqualTo("1");
 
         String activationEmail = jsonResponse.getJsonArray("items").getJsonObject(0).getJsonObject("Content").getString("Body");
@@ -14,6 +14,7 @@ import com.mycompany.myapp.config.Constants;
 import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import com.mycompany.myapp.security.RandomUtil;
+import com.mycompany.myapp.service.MailOutboxDispatcher;
 import com.mycompany.myapp.service.dto.PasswordChangeDTO;
 import com.mycompany.myapp.service.dto.UserDTO;
 import com.mycompany.myapp.web.rest.vm.KeyAndPasswordVM;
@@ -47,6 +48,9 @@ public class AccountResourceTest {
     @Inject
     MockMailbox mailbox;
 
+    @Inject
+    MailOutboxDispatcher mailOutboxDispatcher;
+
     @ConfigProperty(name = "application.name")
     String applicationName;
 
@@ -85,6 +89,7 @@ public class AccountResourceTest {
     }
 
     private void activateUser(String email) {
+        mailOutboxDispatcher.dispatch();
         List<MailMessage> sent = mailbox.getMailMessagesSentTo(email.toLowerCase());
         MailMessage creationEmail = sent.get(sent.size() - 1); // get the last mail
         var matcher = Pattern.compile(".*key=(\\w+).*", Pattern.MULTILINE).matcher(creationEmail.getHtml());
@@ -176,6 +181,41 @@ public class AccountResourceTest {
             .body("authorities", hasItems(AuthoritiesConstants.USER));
     }
 
+    @Test
+    public void testGetNotModifiedAccount() {
+        var user = new ManagedUserVM();
+        user.login = "test";
+        user.password = "test";
+        user.firstName = "john";
+        user.lastName = "doe";
+        user.email = "john.doe@jhipster.com";
+        user.langKey = "en";
+
+        registerUser(user);
+        activateUser(user.email);
+        var token = authenticateUser(user.login, user.password);
+
+        String etag = authenticateRequest(token)
+            .get("/api/account")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .header("ETag", notNullValue())
+            .extract()
+            .header("ETag");
+
+        authenticateRequest(token).header("If-None-Match", etag).get("/api/account").then().statusCode(NOT_MODIFIED.getStatusCode());
+
+        user.firstName = "jack";
+        authenticateRequest(token).body(user).post("/api/account").then().statusCode(OK.getStatusCode());
+
+        authenticateRequest(token)
+            .header("If-None-Match", etag)
+            .get("/api/account")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .body("firstName", is("jack"));
+    }
+
     @Test
     public void testGetUnknownAccount() {
         given().contentType(APPLICATION_JSON).accept(APPLICATION_JSON).get("/api/account").then().statusCode(UNAUTHORIZED.getStatusCode());
@@ -861,6 +901,7 @@ public class AccountResourceTest {
             .then()
             .statusCode(OK.getStatusCode());
 
+        mailOutboxDispatcher.dispatch();
         List<MailMessage> sent = mailbox.getMailMessagesSentTo(user.email);
         MailMessage resetMail = sent.get(sent.size() - 1); // get the last mail
         var matcher = Pattern.compile(".*key=(\\w+).*", Pattern.MULTILINE).matcher(resetMail.getHtml());
@@ -903,6 +944,7 @@ public class AccountResourceTest {
             .then()
             .statusCode(OK.getStatusCode());
 
+        mailOutboxDispatcher.dispatch();
         List<MailMessage> sent = mailbox.getMailMessagesSentTo(user.email);
         MailMessage resetMail = sent.get(sent.size() - 1); // get the last mail
         var matcher = Pattern.compile(".*key=(\\w+).*", Pattern.MULTILINE).matcher(resetMail.getHtml());
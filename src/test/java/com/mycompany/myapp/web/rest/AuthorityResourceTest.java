@@ -2,6 +2,7 @@ package com.mycompany.myapp.web.rest;
 
 import static io.restassured.RestAssured.given;
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static jakarta.ws.rs.core.Response.Status.NOT_MODIFIED;
 import static jakarta.ws.rs.core.Response.Status.OK;
 import static org.hamcrest.Matchers.*;
 
@@ -52,4 +53,47 @@ class AuthorityResourceTest {
             .body("$", hasSize(greaterThan(0)))
             .body("$", hasItems(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN));
     }
+
+    @Test
+    public void getAllAuthoritiesNotModified() {
+        String etag = given()
+            .auth()
+            .preemptive()
+            .oauth2(adminToken)
+            .accept(APPLICATION_JSON)
+            .when()
+            .get("/api/authorities")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .header("ETag", notNullValue())
+            .extract()
+            .header("ETag");
+
+        given()
+            .auth()
+            .preemptive()
+            .oauth2(adminToken)
+            .accept(APPLICATION_JSON)
+            .header("If-None-Match", etag)
+            .when()
+            .get("/api/authorities")
+            .then()
+            .statusCode(NOT_MODIFIED.getStatusCode());
+    }
+
+    @Test
+    public void refreshAuthorities() {
+        given()
+            .auth()
+            .preemptive()
+            .oauth2(adminToken)
+            .contentType(APPLICATION_JSON)
+            .accept(APPLICATION_JSON)
+            .when()
+            .post("/api/authorities/refresh")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .contentType(APPLICATION_JSON)
+            .body("$", hasItems(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN));
+    }
 }
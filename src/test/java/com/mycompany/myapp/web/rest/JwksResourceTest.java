@@ -0,0 +1,34 @@
+package com.mycompany.myapp.web.rest;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static jakarta.ws.rs.core.Response.Status.OK;
+import static org.hamcrest.Matchers.*;
+
+import com.mycompany.myapp.security.jwt.TokenProvider;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class JwksResourceTest {
+
+    @Inject
+    TokenProvider tokenProvider;
+
+    @Test
+    public void getKeysWithoutAuthentication() {
+        given()
+            .accept(APPLICATION_JSON)
+            .when()
+            .get("/management/jwks")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .contentType(APPLICATION_JSON)
+            .body("keys", hasSize(1))
+            .body("keys[0].kid", is(tokenProvider.getKeyId()))
+            .body("keys[0].kty", is("RSA"))
+            .body("keys[0].use", is("sig"))
+            .body("keys[0]", not(hasKey("d")));
+    }
+}
@@ -7,6 +7,7 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.mycompany.myapp.TestUtil;
+import com.mycompany.myapp.service.MailOutboxDispatcher;
 import com.mycompany.myapp.web.rest.vm.LoginVM;
 import com.mycompany.myapp.web.rest.vm.ManagedUserVM;
 import io.quarkus.liquibase.LiquibaseFactory;
@@ -29,6 +30,9 @@ public class UserJWTControllerTest {
     @Inject
     MockMailbox mailbox;
 
+    @Inject
+    MailOutboxDispatcher mailOutboxDispatcher;
+
     @BeforeEach
     public void databaseFixture() {
         try (Liquibase liquibase = liquibaseFactory.createLiquibase()) {
@@ -53,6 +57,7 @@ public class UserJWTControllerTest {
     }
 
     private void activateUser(String email) {
+        mailOutboxDispatcher.dispatch();
         List<MailMessage> sent = mailbox.getMailMessagesSentTo(email.toLowerCase());
         MailMessage creationEmail = sent.get(sent.size() - 1); // get the last mail
         var matcher = Pattern.compile(".*key=(\\w+).*", Pattern.MULTILINE).matcher(creationEmail.getHtml());
@@ -127,6 +132,32 @@ public class UserJWTControllerTest {
             .header(HttpHeaders.AUTHORIZATION, not(blankOrNullString()));
     }
 
+    @Test
+    public void testAuthorizeWithEmail() {
+        var user = new ManagedUserVM();
+        user.login = "user-jwt-controller-email";
+        user.email = "user-jwt-controller-email@example.com";
+        user.password = "test";
+
+        registerUser(user);
+        activateUser(user.email);
+
+        var login = new LoginVM();
+        login.username = "User-JWT-Controller-Email@Example.com";
+        login.password = "test";
+
+        given()
+            .body(login)
+            .contentType(APPLICATION_JSON)
+            .accept(APPLICATION_JSON)
+            .when()
+            .post("/api/authenticate")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .body("id_token", notNullValue())
+            .header(HttpHeaders.AUTHORIZATION, not(blankOrNullString()));
+    }
+
     @Test
     public void testAuthorizeFails() {
         var login = new LoginVM();
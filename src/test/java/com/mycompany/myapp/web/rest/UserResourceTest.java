@@ -18,12 +18,16 @@ import com.mycompany.myapp.web.rest.vm.ManagedUserVM;
 import io.quarkus.liquibase.LiquibaseFactory;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.RestAssured;
+import io.restassured.path.json.JsonPath;
 import io.restassured.specification.RequestSpecification;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.core.HttpHeaders;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 import liquibase.Liquibase;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -210,7 +214,245 @@ public class UserResourceTest {
             .body("email", hasItem(DEFAULT_EMAIL))
             .body("imageUrl", hasItem(DEFAULT_IMAGEURL))
             .body("langKey", hasItem(DEFAULT_LANGKEY))
-            .body("login", hasItem(DEFAULT_LOGIN));
+            .body("login", hasItem(DEFAULT_LOGIN))
+            .body("find { it.login == 'admin' }.authorities", containsInAnyOrder(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER))
+            .body("find { it.login == '" + DEFAULT_LOGIN + "' }.authorities", contains(AuthoritiesConstants.USER));
+    }
+
+    @Test
+    public void getAllUsersWithCursor() throws Exception {
+        authenticatedRequest().body(managedUserVM).when().post("/api/admin/users").then().statusCode(CREATED.getStatusCode());
+
+        var firstPage = authenticatedRequest()
+            .get("/api/admin/users?sort=login,asc&size=2")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .header("X-Total-Count", "3")
+            .header(HttpHeaders.LINK, containsString("rel=\"next\""))
+            .body("login", contains("admin", DEFAULT_LOGIN))
+            .extract()
+            .header(HttpHeaders.LINK);
+
+        var matcher = Pattern.compile("<([^>]+)>; rel=\"next\"").matcher(firstPage);
+        assertThat(matcher.find()).isTrue();
+        authenticatedRequest()
+            .get(matcher.group(1))
+            .then()
+            .statusCode(OK.getStatusCode())
+            .header(HttpHeaders.LINK, not(containsString("rel=\"next\"")))
+            .body("login", contains("user"));
+    }
+
+    @Test
+    public void getAllUsersWithCursorOnASharedValue() throws Exception {
+        authenticatedRequest().body(managedUserVM).when().post("/api/admin/users").then().statusCode(CREATED.getStatusCode());
+
+        // every user has the same language: the id orders them, and pages seek past it
+        assertThat(loginsOfAllPages("/api/admin/users?sort=langKey,desc&size=1")).containsExactly(DEFAULT_LOGIN, "user", "admin");
+    }
+
+    @Test
+    public void getAllUsersWithCursorOnANullableValue() throws Exception {
+        managedUserVM.firstName = null;
+        authenticatedRequest().body(managedUserVM).when().post("/api/admin/users").then().statusCode(CREATED.getStatusCode());
+
+        assertThat(loginsOfAllPages("/api/admin/users?sort=firstName,asc&size=1")).containsExactly("admin", "user", DEFAULT_LOGIN);
+    }
+
+    @Test
+    public void getAllUsersByPageThenWithCursor() throws Exception {
+        authenticatedRequest().body(managedUserVM).when().post("/api/admin/users").then().statusCode(CREATED.getStatusCode());
+
+        var firstPage = authenticatedRequest()
+            .get("/api/admin/users?page=0&size=2&sort=email,asc")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .body("login", contains("admin", DEFAULT_LOGIN))
+            .extract()
+            .header(HttpHeaders.LINK);
+
+        String next = nextLink(firstPage);
+        assertThat(next).contains("after=");
+        assertThat(loginsOfAllPages(next)).containsExactly("user");
+    }
+
+    @Test
+    public void getAllUsersByPage() throws Exception {
+        authenticatedRequest().body(managedUserVM).when().post("/api/admin/users").then().statusCode(CREATED.getStatusCode());
+
+        authenticatedRequest()
+            .get("/api/admin/users?page=1&size=2&sort=email,desc")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .header("X-Total-Count", "3")
+            .header(HttpHeaders.LINK, containsString("rel=\"prev\""))
+            .body("$", hasSize(1));
+    }
+
+    @Test
+    public void getAllUsersWithInvalidSort() throws Exception {
+        authenticatedRequest().get("/api/admin/users?sort=password,asc").then().statusCode(BAD_REQUEST.getStatusCode());
+    }
+
+    @Test
+    public void importUsers() throws Exception {
+        var body = String.join(
+            "\n",
+            "{\"login\":\"alice\",\"email\":\"alice@localhost\",\"langKey\":\"en\",\"authorities\":[\"ROLE_USER\"]}",
+            "{\"login\":\"admin\",\"email\":\"other@localhost\"}",
+            "not json",
+            "{\"login\":\"bob\",\"email\":\"ALICE@localhost\"}",
+            "{\"login\":\"carol\"}"
+        );
+
+        given()
+            .auth()
+            .preemptive()
+            .oauth2(TestUtil.getAdminToken())
+            .contentType("application/x-ndjson")
+            .accept(APPLICATION_JSON)
+            .body(body)
+            .post("/api/admin/users/import")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .body("total", is(5))
+            .body("created", is(1))
+            .body("failed", is(4))
+            .body("errors.row", containsInAnyOrder(2, 3, 4, 5))
+            .body("errors.find { it.row == 2 }.message", is("Login name already used!"))
+            .body("errors.find { it.row == 4 }.message", is("Email is already in use!"));
+
+        authenticatedRequest()
+            .get("/api/admin/users/{login}", "alice")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .body("activated", is(true))
+            .body("authorities", contains(AuthoritiesConstants.USER));
+    }
+
+    @Test
+    public void importUsersAsCsv() throws Exception {
+        given()
+            .auth()
+            .preemptive()
+            .oauth2(TestUtil.getAdminToken())
+            .contentType("text/csv")
+            .accept(APPLICATION_JSON)
+            .body("login,email,firstName,authorities\r\ndave,dave@localhost,\"Dave, \"\"Jr\"\"\",ROLE_USER ROLE_ADMIN\r\n")
+            .post("/api/admin/users/import")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .body("created", is(1))
+            .body("failed", is(0));
+
+        authenticatedRequest()
+            .get("/api/admin/users/{login}", "dave")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .body("firstName", is("Dave, \"Jr\""))
+            .body("authorities", containsInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN));
+    }
+
+    @Test
+    public void exportUsersAsNdjson() throws Exception {
+        authenticatedRequest().body(managedUserVM).when().post("/api/admin/users").then().statusCode(CREATED.getStatusCode());
+
+        var lines = given()
+            .auth()
+            .preemptive()
+            .oauth2(TestUtil.getAdminToken())
+            .accept("application/x-ndjson")
+            .get("/api/admin/users/export")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .contentType("application/x-ndjson")
+            .extract()
+            .asString()
+            .lines()
+            .map(JsonPath::from)
+            .toList();
+
+        assertThat(lines).extracting(user -> user.getString("login")).containsExactly("admin", "user", DEFAULT_LOGIN);
+        assertThat(lines.get(0).getList("authorities")).containsExactlyInAnyOrder(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+        assertThat(lines.get(2).getString("email")).isEqualTo(DEFAULT_EMAIL);
+        assertThat(lines.get(2).getList("authorities")).containsExactly(AuthoritiesConstants.USER);
+    }
+
+    @Test
+    public void exportUsersAsCsv() throws Exception {
+        managedUserVM.lastName = "=doe, \"jr\"";
+        authenticatedRequest().body(managedUserVM).when().post("/api/admin/users").then().statusCode(CREATED.getStatusCode());
+
+        var lines = given()
+            .auth()
+            .preemptive()
+            .oauth2(TestUtil.getAdminToken())
+            .accept("text/csv")
+            .get("/api/admin/users/export?format=csv")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .contentType(containsString("text/csv"))
+            .extract()
+            .asString()
+            .lines()
+            .toList();
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).startsWith("id,login,firstName,lastName,email,");
+        assertThat(lines.get(1)).startsWith("1,admin,").endsWith(",ROLE_ADMIN ROLE_USER");
+        assertThat(lines.get(3)).contains(",johndoe,john,\"'=doe, \"\"jr\"\"\",johndoe@localhost,").endsWith(",ROLE_USER");
+    }
+
+    @Test
+    public void exportThenImportUsersAsCsv() throws Exception {
+        managedUserVM.login = "-bob";
+        managedUserVM.firstName = "-Jo";
+        managedUserVM.lastName = "'=doe";
+        authenticatedRequest().body(managedUserVM).when().post("/api/admin/users").then().statusCode(CREATED.getStatusCode());
+
+        String csv = given()
+            .auth()
+            .preemptive()
+            .oauth2(TestUtil.getAdminToken())
+            .accept("text/csv")
+            .get("/api/admin/users/export?format=csv")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .extract()
+            .asString();
+        authenticatedRequest().delete("/api/admin/users/{login}", "-bob").then().statusCode(NO_CONTENT.getStatusCode());
+
+        given()
+            .auth()
+            .preemptive()
+            .oauth2(TestUtil.getAdminToken())
+            .contentType("text/csv")
+            .accept(APPLICATION_JSON)
+            .body(csv)
+            .post("/api/admin/users/import")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .body("created", is(1))
+            .body("errors.login", containsInAnyOrder("admin", "user"));
+
+        authenticatedRequest()
+            .get("/api/admin/users/{login}", "-bob")
+            .then()
+            .statusCode(OK.getStatusCode())
+            .body("firstName", is("-Jo"))
+            .body("lastName", is("'=doe"))
+            .body("email", is(DEFAULT_EMAIL));
+    }
+
+    @Test
+    public void exportUsersWithUnknownFormat() throws Exception {
+        given()
+            .auth()
+            .preemptive()
+            .oauth2(TestUtil.getAdminToken())
+            .get("/api/admin/users/export?format=xml")
+            .then()
+            .statusCode(BAD_REQUEST.getStatusCode());
     }
 
     @Test
@@ -519,6 +761,24 @@ public class UserResourceTest {
         assertThat(userDTO.toString()).isNotNull();
     }
 
+    /**
+     * @return the logins of the users of a page and of every page after it, following the {@code next} links.
+     */
+    private List<String> loginsOfAllPages(String uri) {
+        List<String> logins = new ArrayList<>();
+        for (String next = uri; next != null;) {
+            var page = authenticatedRequest().get(next).then().statusCode(OK.getStatusCode()).extract();
+            logins.addAll(page.jsonPath().getList("login", String.class));
+            next = nextLink(page.header(HttpHeaders.LINK));
+        }
+        return logins;
+    }
+
+    private static String nextLink(String links) {
+        var matcher = Pattern.compile("<([^>]+)>; rel=\"next\"").matcher(links);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
     private RequestSpecification authenticatedRequest() {
         return given().auth().preemptive().oauth2(TestUtil.getAdminToken()).contentType(APPLICATION_JSON).accept(APPLICATION_JSON);
     }